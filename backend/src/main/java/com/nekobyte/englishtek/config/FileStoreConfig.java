@@ -0,0 +1,38 @@
+package com.nekobyte.englishtek.config;
+
+import com.nekobyte.englishtek.storage.FileStore;
+import com.nekobyte.englishtek.storage.InMemoryFileStore;
+import com.nekobyte.englishtek.storage.LegacyFallbackFileStore;
+import com.nekobyte.englishtek.storage.LocalFileStore;
+import com.nekobyte.englishtek.storage.S3FileStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Configuration
+public class FileStoreConfig {
+
+    // file.storage.type selects local (sharded directories under file.upload-dir), memory or s3
+    @Bean
+    public LegacyFallbackFileStore fileStore(FileStorageConfig fileStorageConfig,
+                                             @Value("${file.storage.type:local}") String type,
+                                             @Value("${file.storage.s3.endpoint:http://localhost:9000}") String endpoint,
+                                             @Value("${file.storage.s3.bucket:englishtek}") String bucket,
+                                             @Value("${file.storage.s3.region:us-east-1}") String region,
+                                             @Value("${file.storage.s3.access-key:}") String accessKey,
+                                             @Value("${file.storage.s3.secret-key:}") String secretKey) throws IOException {
+        Path root = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        FileStore store = switch (type) {
+            case "local" -> new LocalFileStore(root);
+            case "memory" -> new InMemoryFileStore();
+            case "s3" -> new S3FileStore(endpoint, bucket, region, accessKey, secretKey);
+            default -> throw new IllegalStateException("Unknown file.storage.type: " + type);
+        };
+        // Uploads from before sharding stay readable in the flat directory until they are migrated
+        return new LegacyFallbackFileStore(store, root);
+    }
+}
@@ -4,11 +4,19 @@ import com.nekobyte.englishtek.dto.chapter.ChapterRequest;
 import com.nekobyte.englishtek.dto.chapter.ChapterResponse;
 import com.nekobyte.englishtek.dto.chapter.ChapterDetailResponse;
 import com.nekobyte.englishtek.dto.chapter.ChapterListResponse;
+import com.nekobyte.englishtek.dto.chapter.ChapterItemMoveRequest;
 import com.nekobyte.englishtek.dto.chapter.ChapterRearrangeRequest;
+import com.nekobyte.englishtek.dto.chapter.ChapterImportResponse;
+import com.nekobyte.englishtek.dto.chapter.ChapterPrerequisitesRequest;
+import com.nekobyte.englishtek.dto.chapter.ChapterSequenceRequest;
+import com.nekobyte.englishtek.dto.chapter.ResumeResponse;
+import com.nekobyte.englishtek.service.ChapterImportService;
 import com.nekobyte.englishtek.service.ChapterService;
+import com.nekobyte.englishtek.service.LearningPointerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
@@ -16,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -25,6 +34,8 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class ChapterController {
     private final ChapterService chapterService;
+    private final ChapterImportService chapterImportService;
+    private final LearningPointerService learningPointerService;
 
     @Operation(summary = "Get all chapters")
     @GetMapping
@@ -32,6 +43,12 @@ public class ChapterController {
         return ResponseEntity.ok(chapterService.getAllChapters());
     }
 
+    @Operation(summary = "Get the next lesson or quiz the current user should continue with")
+    @GetMapping("/resume")
+    public ResponseEntity<ResumeResponse> getResume() {
+        return ResponseEntity.ok(learningPointerService.getResume());
+    }
+
     @Operation(summary = "Get chapter by ID")
     @GetMapping("/{id}")
     public ResponseEntity<ChapterDetailResponse> getChapter(@PathVariable Long id) {
@@ -64,6 +81,40 @@ public class ChapterController {
         return ResponseEntity.ok(chapterService.rearrangeChapterItems(id, request));
     }
 
+    @Operation(summary = "Move one chapter item between two neighbours")
+    @PutMapping("/{id}/move")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChapterDetailResponse> moveChapterItem(
+            @PathVariable Long id,
+            @RequestBody @Valid ChapterItemMoveRequest request) {
+        return ResponseEntity.ok(chapterService.moveChapterItem(id, request));
+    }
+
+    @Operation(summary = "Set the order of all chapters")
+    @PutMapping("/sequence")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ChapterListResponse>> updateChapterSequence(
+            @RequestBody @Valid ChapterSequenceRequest request) {
+        return ResponseEntity.ok(chapterService.updateChapterSequence(request));
+    }
+
+    @Operation(summary = "Set the chapters that must be completed before this one")
+    @PutMapping("/{id}/prerequisites")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChapterResponse> updateChapterPrerequisites(
+            @PathVariable Long id,
+            @RequestBody @Valid ChapterPrerequisitesRequest request) {
+        return ResponseEntity.ok(chapterService.updateChapterPrerequisites(id, request));
+    }
+
+    @Operation(summary = "Import a chapter with its lessons, quizzes and badges from one JSON document")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChapterImportResponse> importChapter(HttpServletRequest request) throws IOException {
+        // Read the body as a stream so large curriculum documents are never fully buffered
+        return ResponseEntity.ok(chapterImportService.importChapter(request.getInputStream()));
+    }
+
     @Operation(summary = "Delete chapter")
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
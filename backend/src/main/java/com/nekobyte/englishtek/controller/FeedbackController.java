@@ -1,7 +1,9 @@
 package com.nekobyte.englishtek.controller;
 
+import com.nekobyte.englishtek.dto.feedback.FeedbackPageResponse;
 import com.nekobyte.englishtek.dto.feedback.FeedbackRequest;
 import com.nekobyte.englishtek.dto.feedback.FeedbackResponse;
+import com.nekobyte.englishtek.dto.feedback.FeedbackStatsResponse;
 import com.nekobyte.englishtek.service.FeedbackService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -41,6 +43,23 @@ public class FeedbackController {
         return ResponseEntity.ok(feedbackService.getFeedbacksByChapter(chapterId));
     }
 
+    @Operation(summary = "Get a page of a chapter's feedbacks, newest first")
+    @GetMapping("/chapter/{chapter_id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FeedbackPageResponse> getFeedbackPage(
+            @PathVariable("chapter_id") Long chapterId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(feedbackService.getFeedbackPage(chapterId, page, size));
+    }
+
+    @Operation(summary = "Get a chapter's feedback totals: count, average rating, rating histogram and top keywords")
+    @GetMapping("/stats/{chapter_id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FeedbackStatsResponse> getFeedbackStats(@PathVariable("chapter_id") Long chapterId) {
+        return ResponseEntity.ok(feedbackService.getFeedbackStats(chapterId));
+    }
+
     @Operation(summary = "Update feedback")
     @PutMapping("/{id}")
     public ResponseEntity<FeedbackResponse> updateFeedback(
@@ -2,12 +2,14 @@ package com.nekobyte.englishtek.controller;
 
 import com.nekobyte.englishtek.dto.FileUploadResponse;
 import com.nekobyte.englishtek.service.FileStorageService;
+import com.nekobyte.englishtek.service.ImageVariantService;
+import com.nekobyte.englishtek.storage.FileStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +22,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.logging.FileHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 @Tag(name = "Files", description = "File management APIs")
 @RestController
@@ -28,18 +37,171 @@ import java.util.logging.FileHandler;
 @RequiredArgsConstructor
 @SecurityRequirement(name = "bearerAuth")
 public class FileController {
+    // Stored files never change under the same name, so clients may keep them for a year without revalidating
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    // The original standing in for a variant that is not ready yet; revalidated so the variant replaces it
+    private static final String REVALIDATE = "no-cache";
+    // Below this, a plain copy is cheaper than setting up sendfile (Tomcat's own default servlet uses 48 KB)
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
     private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
 
-    @Operation(summary = "Get file by filename")
+    @Operation(summary = "Get file by filename; images can be requested downscaled with size=64, 128 or 512")
     @GetMapping("/{fileName:.+}")
-    public ResponseEntity<Resource> getFile(@PathVariable String fileName) {
-        Resource resource = fileStorageService.loadFileAsResource(fileName);
-        String contentType = determineContentType(fileName);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    public void getFile(@PathVariable String fileName, @RequestParam(required = false) Integer size,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = size != null ? imageVariantService.getVariant(fileName, size) : fileName;
+        FileStore.FileStat stat = fileStorageService.stat(key);
+        long fileSize = stat.getSize();
+        // Stored names are content hashes that are never rewritten, so name, size and mtime identify the bytes
+        String etag = "\"" + Long.toHexString(fileSize) + "-" + Long.toHexString(stat.getLastModified().toEpochMilli()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        boolean variantFallback = size != null && key.equals(fileName);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, variantFallback ? REVALIDATE : IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(determineContentType(key));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + key + "\"");
+
+        long start = 0;
+        long end = fileSize - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A stale If-Range means the client's partial copy is of other bytes; send the whole file instead
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, fileSize);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileSize);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length <= 0) {
+            return;
+        }
+
+        Path path = fileStorageService.localPath(key);
+        if (path == null) {
+            // Remote stores are relayed through a plain stream
+            try (InputStream in = fileStorageService.open(key)) {
+                in.skipNBytes(start);
+                OutputStream out = response.getOutputStream();
+                byte[] buffer = new byte[64 * 1024];
+                long remaining = length;
+                while (remaining > 0) {
+                    int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+            return;
+        }
+
+        if (length >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            // Tomcat sends the region with sendfile once the handler returns; nothing is copied through the heap
+            request.setAttribute("org.apache.tomcat.sendfile.filename", path.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // If-None-Match may list several tags or be "*"; weak tags compare equal for GET
+    private boolean matchesEtag(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a single "bytes=" range into inclusive bounds. Returns an empty array when the header should be
+     * ignored (other units, multiple ranges, malformed) and null when the range cannot be satisfied.
+     */
+    static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (last.isEmpty()) {
+                    end = size - 1;
+                } else {
+                    end = Long.parseLong(last);
+                    // Last before first is malformed, so the header is ignored rather than answered with 416
+                    if (end < start) {
+                        return new long[0];
+                    }
+                    end = Math.min(end, size - 1);
+                }
+            }
+            if (start >= size) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
     }
 
     private String determineContentType(String fileName) {
@@ -69,4 +231,19 @@ public class FileController {
 
         return ResponseEntity.ok(response);
     }
+
+    @Operation(summary = "Upload a file sent as the raw request body (Admin only); streamed straight into storage")
+    @PostMapping("/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FileUploadResponse> uploadStream(@RequestParam String fileName, HttpServletRequest request)
+            throws IOException {
+        String storedName = fileStorageService.storeStream(request.getInputStream(), fileName);
+
+        FileUploadResponse response = new FileUploadResponse();
+        response.setFileName(storedName);
+        response.setFileDownloadUri("/api/v1/files/" + storedName);
+        response.setSize(fileStorageService.stat(storedName).getSize());
+
+        return ResponseEntity.ok(response);
+    }
 }
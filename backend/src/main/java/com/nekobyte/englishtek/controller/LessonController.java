@@ -2,13 +2,19 @@ package com.nekobyte.englishtek.controller;
 
 import com.nekobyte.englishtek.dto.lesson.LessonRequest;
 import com.nekobyte.englishtek.dto.lesson.LessonResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonSummaryResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonContentStatsResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonPagesResponse;
 import com.nekobyte.englishtek.dto.lesson.LessonPdfResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonProgressRequest;
 import com.nekobyte.englishtek.service.LessonService;
+import com.nekobyte.englishtek.util.ContentCompression;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -17,6 +23,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -25,17 +32,23 @@ import java.util.List;
 @Tag(name = "Lesson", description = "Lesson management APIs")
 @SecurityRequirement(name = "bearerAuth")
 public class LessonController {
+    private static final MediaType MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
     private final LessonService lessonService;
 
+    // Send stored gzip bytes as-is to clients that accept gzip instead of decompressing and re-sending
+    @Value("${lesson.content.gzip-passthrough:true}")
+    private boolean gzipPassthrough;
+
     @GetMapping
     @Operation(summary = "Get all lessons")
-    public ResponseEntity<List<LessonResponse>> getAllLessons() {
+    public ResponseEntity<List<LessonSummaryResponse>> getAllLessons() {
         return ResponseEntity.ok(lessonService.getAllLessons());
     }
 
     @GetMapping("/chapter/{chapterId}")
     @Operation(summary = "Get lessons by chapter")
-    public ResponseEntity<List<LessonResponse>> getLessonsByChapter(@PathVariable Long chapterId) {
+    public ResponseEntity<List<LessonSummaryResponse>> getLessonsByChapter(@PathVariable Long chapterId) {
         return ResponseEntity.ok(lessonService.getLessonsByChapter(chapterId));
     }
 
@@ -45,6 +58,45 @@ public class LessonController {
         return ResponseEntity.ok(lessonService.getLesson(id));
     }
 
+    @GetMapping("/{id}/pages")
+    @Operation(summary = "Get a range of lesson content pages (1-based, inclusive)")
+    public ResponseEntity<LessonPagesResponse> getLessonPages(
+            @PathVariable Long id,
+            @RequestParam int from,
+            @RequestParam(required = false) Integer to) {
+        return ResponseEntity.ok(lessonService.getLessonPages(id, from, to));
+    }
+
+    @GetMapping("/{id}/pages/{page}")
+    @Operation(summary = "Get a single lesson content page")
+    public ResponseEntity<LessonPagesResponse> getLessonPage(@PathVariable Long id, @PathVariable int page) {
+        return ResponseEntity.ok(lessonService.getLessonPages(id, page, null));
+    }
+
+    @GetMapping("/{id}/pages/{page}/content")
+    @Operation(summary = "Get a single lesson page as raw markdown")
+    public ResponseEntity<byte[]> getLessonPageContent(
+            @PathVariable Long id,
+            @PathVariable int page,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        byte[] stored = lessonService.getStoredPage(id, page);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MARKDOWN)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipPassthrough && ContentCompression.isGzip(stored) && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(stored);
+        }
+        return response.body(ContentCompression.decompress(stored).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @GetMapping("/content-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Report compression ratio and decode cost of stored lesson pages")
+    public ResponseEntity<LessonContentStatsResponse> getContentStats(@RequestParam(defaultValue = "500") int sample) {
+        return ResponseEntity.ok(lessonService.getContentStats(sample));
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Create a new lesson")
@@ -80,6 +132,13 @@ public class LessonController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/{id}/progress")
+    @Operation(summary = "Report the page the user is reading")
+    public ResponseEntity<Void> recordProgress(@PathVariable Long id, @Valid @RequestBody LessonProgressRequest request) {
+        lessonService.recordProgress(id, request);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/{id}/pdf")
     @Operation(summary = "Download lesson as PDF")
     public ResponseEntity<byte[]> getLessonPdf(@PathVariable Long id) throws IOException {
@@ -97,4 +156,24 @@ public class LessonController {
                 .headers(headers)
                 .body(pdfResponse.getContent());
     }
+
+    // True unless gzip is absent or explicitly refused with q=0
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < tokens.length; i++) {
+                    String parameter = tokens[i].trim().replace(" ", "");
+                    if (parameter.matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,19 +1,31 @@
 package com.nekobyte.englishtek.controller;
 
+import com.nekobyte.englishtek.dto.quiz.QuizAttemptHistoryResponse;
+import com.nekobyte.englishtek.dto.quiz.QuizDraftRequest;
+import com.nekobyte.englishtek.dto.quiz.QuizItemStatsResponse;
+import com.nekobyte.englishtek.dto.quiz.QuizRegradeJobResponse;
 import com.nekobyte.englishtek.dto.quiz.QuizRequest;
 import com.nekobyte.englishtek.dto.quiz.QuizResponse;
 import com.nekobyte.englishtek.dto.quiz.QuizSubmissionRequest;
 import com.nekobyte.englishtek.dto.quiz.QuizSubmissionResponse;
+import com.nekobyte.englishtek.dto.quiz.QuizSummaryResponse;
+import com.nekobyte.englishtek.service.QuizDraftService;
+import com.nekobyte.englishtek.service.QuizItemStatsService;
+import com.nekobyte.englishtek.service.QuizRegradeService;
 import com.nekobyte.englishtek.service.QuizService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/quizzes")
 @RequiredArgsConstructor
@@ -21,6 +33,23 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Quizzes", description = "Quiz management APIs")
 public class QuizController {
     private final QuizService quizService;
+    private final QuizRegradeService quizRegradeService;
+    private final QuizItemStatsService quizItemStatsService;
+    private final QuizDraftService quizDraftService;
+
+    @Operation(summary = "Get all quizzes (summary, without questions)")
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<QuizSummaryResponse>> getAllQuizzes() {
+        return ResponseEntity.ok(quizService.getAllQuizzes());
+    }
+
+    @Operation(summary = "Get quizzes by chapter (summary, without questions)")
+    @GetMapping("/chapter/{chapterId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<QuizSummaryResponse>> getQuizzesByChapter(@PathVariable Long chapterId) {
+        return ResponseEntity.ok(quizService.getQuizzesByChapter(chapterId));
+    }
 
     @Operation(summary = "Get quiz by ID")
     @GetMapping("/{id}")
@@ -70,4 +99,59 @@ public class QuizController {
     ) {
         return ResponseEntity.ok(quizService.submitQuiz(id, request));
     }
+
+    @Operation(summary = "Get current user's quiz attempt history")
+    @GetMapping("/history")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<QuizAttemptHistoryResponse>> getAttemptHistory(
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(quizService.getAttemptHistory(null, quizId, from, to));
+    }
+
+    @Operation(summary = "Get a user's quiz attempt history (Admin only)")
+    @GetMapping("/history/user/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<QuizAttemptHistoryResponse>> getUserAttemptHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long quizId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(quizService.getAttemptHistory(userId, quizId, from, to));
+    }
+
+    @Operation(summary = "Autosave answers of a started quiz")
+    @PutMapping("/{id}/draft")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<Void> saveDraft(
+            @PathVariable Long id,
+            @Valid @RequestBody QuizDraftRequest request
+    ) {
+        quizDraftService.saveDraft(id, request.getAnswers());
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Re-grade all stored attempts of a quiz against its current answer key")
+    @PostMapping("/{id}/regrade")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QuizRegradeJobResponse> regradeQuiz(@PathVariable Long id) {
+        return ResponseEntity.ok(quizRegradeService.startRegrade(id));
+    }
+
+    @Operation(summary = "Get progress of the latest re-grade job for a quiz")
+    @GetMapping("/{id}/regrade")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QuizRegradeJobResponse> getRegradeStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(quizRegradeService.getLatestJob(id));
+    }
+
+    @Operation(summary = "Get per-question item statistics for a quiz")
+    @GetMapping("/{id}/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QuizItemStatsResponse> getQuizStats(@PathVariable Long id) {
+        return ResponseEntity.ok(quizItemStatsService.getQuizStats(id));
+    }
 }
@@ -0,0 +1,35 @@
+package com.nekobyte.englishtek.controller;
+
+import com.nekobyte.englishtek.dto.search.SearchResultResponse;
+import com.nekobyte.englishtek.service.SearchIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Search", description = "Full-text search over chapters, lessons and quizzes")
+public class SearchController {
+    private final SearchIndexService searchIndexService;
+
+    @Operation(summary = "Search chapters, lessons and quizzes; type optionally restricts to chapter, lesson or quiz")
+    @GetMapping
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<List<SearchResultResponse>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchIndexService.search(q, type, limit));
+    }
+}
@@ -4,6 +4,8 @@ import com.nekobyte.englishtek.dto.auth.AuthResponse;
 import com.nekobyte.englishtek.dto.user.UpdateUserByAdminFormRequest;
 import com.nekobyte.englishtek.dto.user.UpdateUserRequest;
 import com.nekobyte.englishtek.dto.user.UserResponse;
+import com.nekobyte.englishtek.dto.user.UserSearchResponse;
+import com.nekobyte.englishtek.service.UserSearchService;
 import com.nekobyte.englishtek.service.UserService;
 import com.nekobyte.englishtek.validation.OnUpdate;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,6 +38,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final UserSearchService userSearchService;
 
     @Operation(summary = "Get current user details")
     @GetMapping("/me")
@@ -79,6 +82,16 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    @Operation(summary = "Search users by username, name or email (Admin only)")
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserSearchResponse> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userSearchService.search(q, page, size));
+    }
+
     @Operation(summary = "Get user by ID")
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -17,6 +17,9 @@ public class ChapterDetailResponse {
     private String title;
     private String description;
     private String iconUrl;
+    private Integer sequence;
+    // Chapters that must be completed first (the previous chapter unless set explicitly)
+    private List<Long> prerequisiteIds;
     private List<ChapterItemDto> items;
     private boolean hasCompletedFeedback;
     private ChapterStatus status;
@@ -0,0 +1,34 @@
+package com.nekobyte.englishtek.dto.chapter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChapterImportResponse {
+    private Long chapterId;
+    private int imported;
+    private int failed;
+    @Builder.Default
+    private List<ItemResult> items = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String type;
+        private String title;
+        private Long id;
+        private boolean success;
+        private String error;
+    }
+}
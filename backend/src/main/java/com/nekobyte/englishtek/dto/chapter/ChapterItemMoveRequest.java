@@ -0,0 +1,20 @@
+package com.nekobyte.englishtek.dto.chapter;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ChapterItemMoveRequest {
+    @NotNull(message = "Item cannot be null")
+    @Valid
+    private ChapterRearrangeRequest.ChapterItemOrder item;
+
+    // Neighbours after the move: 'after' precedes the item, 'before' follows it.
+    // At least one is required; the other is implied by the current order.
+    @Valid
+    private ChapterRearrangeRequest.ChapterItemOrder after;
+
+    @Valid
+    private ChapterRearrangeRequest.ChapterItemOrder before;
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,6 +16,9 @@ public class ChapterListResponse {
     private Long id;
     private String icon;
     private String title;
+    private Integer sequence;
+    // Chapters that must be completed first (the previous chapter unless set explicitly)
+    private List<Long> prerequisiteIds;
     private int totalTasks;
     private int completedTasks;
     private double progressPercentage;
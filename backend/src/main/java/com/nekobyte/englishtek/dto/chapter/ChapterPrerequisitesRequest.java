@@ -0,0 +1,13 @@
+package com.nekobyte.englishtek.dto.chapter;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class ChapterPrerequisitesRequest {
+    // An empty set restores the default: the previous chapter in sequence
+    @NotNull(message = "Prerequisite list cannot be null")
+    private Set<Long> prerequisiteIds;
+}
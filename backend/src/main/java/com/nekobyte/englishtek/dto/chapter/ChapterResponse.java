@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @Builder
@@ -16,6 +17,8 @@ public class ChapterResponse {
     private String title;
     private String description;
     private String iconUrl;
+    private Integer sequence;
+    private Set<Long> prerequisiteIds;
     private List<ChapterItemDto> items;
     private ChapterStatus status;
     private boolean hasCompletedFeedback;
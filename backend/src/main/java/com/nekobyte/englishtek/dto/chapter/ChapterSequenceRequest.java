@@ -0,0 +1,13 @@
+package com.nekobyte.englishtek.dto.chapter;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ChapterSequenceRequest {
+    // Every chapter id, in the new order
+    @NotEmpty(message = "Chapter list cannot be empty")
+    private List<Long> chapterIds;
+}
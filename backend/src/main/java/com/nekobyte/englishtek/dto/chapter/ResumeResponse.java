@@ -0,0 +1,20 @@
+package com.nekobyte.englishtek.dto.chapter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeResponse {
+    private Long chapterId;
+    private String chapterTitle;
+    private String itemType;
+    private Long itemId;
+    private String itemTitle;
+    // True when there is nothing left to continue with
+    private boolean finished;
+}
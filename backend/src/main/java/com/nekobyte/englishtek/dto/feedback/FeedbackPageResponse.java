@@ -0,0 +1,15 @@
+package com.nekobyte.englishtek.dto.feedback;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class FeedbackPageResponse {
+    private List<FeedbackResponse> feedbacks;
+    private int page;  // 0-based
+    private int size;
+    private long total;
+}
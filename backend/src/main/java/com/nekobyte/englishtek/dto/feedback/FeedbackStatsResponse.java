@@ -0,0 +1,24 @@
+package com.nekobyte.englishtek.dto.feedback;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class FeedbackStatsResponse {
+    private Long chapterId;
+    private long feedbackCount;
+    private Double averageRating;  // null while the chapter has no feedback
+    private Map<Integer, Long> ratingHistogram;  // every rating from 1 to 5, including zeros
+    private List<KeywordCount> topKeywords;
+
+    @Data
+    @Builder
+    public static class KeywordCount {
+        private String keyword;
+        private long count;
+    }
+}
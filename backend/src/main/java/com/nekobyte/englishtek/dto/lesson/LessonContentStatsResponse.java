@@ -0,0 +1,16 @@
+package com.nekobyte.englishtek.dto.lesson;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LessonContentStatsResponse {
+    private int sampledPages;
+    private long rawBytes;
+    private long storedBytes;
+    // storedBytes / rawBytes
+    private double compressionRatio;
+    private double averageDecodeMicros;
+    private double maxDecodeMicros;
+}
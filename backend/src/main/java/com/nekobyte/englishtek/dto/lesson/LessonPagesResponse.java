@@ -0,0 +1,23 @@
+package com.nekobyte.englishtek.dto.lesson;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class LessonPagesResponse {
+    private Long lessonId;
+    private int pageCount;
+    private List<Page> pages;
+
+    @Data
+    @AllArgsConstructor
+    public static class Page {
+        // 1-based, matching the progress endpoint
+        private int page;
+        private String content;
+    }
+}
@@ -0,0 +1,13 @@
+package com.nekobyte.englishtek.dto.lesson;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class LessonProgressRequest {
+    // 1-based content page the learner is currently on
+    @NotNull
+    @Min(1)
+    private Integer page;
+}
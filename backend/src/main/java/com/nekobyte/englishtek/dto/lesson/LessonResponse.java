@@ -14,4 +14,6 @@ public class LessonResponse {
     private String description;
     private List<String> content;
     private boolean completed;
+    // Last page the user reached, for resuming; null if never opened
+    private Integer currentPage;
 }
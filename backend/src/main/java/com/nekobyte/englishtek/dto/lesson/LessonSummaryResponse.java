@@ -0,0 +1,15 @@
+package com.nekobyte.englishtek.dto.lesson;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LessonSummaryResponse {
+    private Long id;
+    private Long chapterId;
+    private String title;
+    private String description;
+    private int pageCount;
+    private boolean completed;
+}
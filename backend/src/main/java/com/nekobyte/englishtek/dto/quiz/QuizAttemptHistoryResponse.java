@@ -0,0 +1,20 @@
+package com.nekobyte.englishtek.dto.quiz;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class QuizAttemptHistoryResponse {
+    private Long id;
+    private Long quizId;
+    private Long chapterId;
+    private String quizTitle;
+    private Integer score;
+    private Integer maxScore;
+    private Integer numberOfItems;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
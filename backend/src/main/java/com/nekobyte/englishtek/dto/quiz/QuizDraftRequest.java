@@ -0,0 +1,15 @@
+package com.nekobyte.englishtek.dto.quiz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class QuizDraftRequest {
+    // Question ID -> answer (an array of the selected choices for multiple choice), merged into the
+    // saved draft; a blank answer clears that question
+    @NotNull
+    private Map<Long, JsonNode> answers;
+}
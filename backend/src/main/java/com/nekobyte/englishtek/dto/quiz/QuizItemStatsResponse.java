@@ -0,0 +1,30 @@
+package com.nekobyte.englishtek.dto.quiz;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class QuizItemStatsResponse {
+    private Long quizId;
+    private String title;
+    private List<QuestionStats> questions;
+
+    @Data
+    @Builder
+    public static class QuestionStats {
+        private Long questionId;
+        private Integer page;
+        private String type;
+        private String title;
+        private long attempts;
+        private long correctCount;
+        private Double correctRate;
+        // Point-biserial correlation between answering correctly and the attempt's total score
+        private Double discriminationIndex;
+        private Map<String, Long> choiceDistribution;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nekobyte.englishtek.dto.quiz;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class QuizRegradeJobResponse {
+    private Long id;
+    private Long quizId;
+    private String status;
+    private long totalAttempts;
+    private long processedAttempts;
+    private long changedScores;
+    private long badgesAwarded;
+    private double progressPercentage;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
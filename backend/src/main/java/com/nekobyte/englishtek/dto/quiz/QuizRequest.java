@@ -41,6 +41,9 @@ public class QuizRequest {
 
     @Data
     public static class QuestionRequest {
+        // Set when updating an existing question; omitted for new questions
+        private Long id;
+
         @NotNull
         private Integer page;
 
@@ -55,5 +58,10 @@ public class QuizRequest {
 
         @JsonProperty("correct_answer")
         private Object correctAnswer;
+
+        // Typos accepted for identification answers; defaults to 0 (normalized exact match)
+        @Min(0)
+        @Max(5)
+        private Integer maxEdits;
     }
 }
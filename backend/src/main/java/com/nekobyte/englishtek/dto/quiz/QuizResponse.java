@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -20,6 +21,8 @@ public class QuizResponse {
     private Boolean isRandom;
     private List<QuestionResponse> questions;
     private boolean completed;
+    // Answers autosaved for the current attempt, returned when a started quiz is resumed
+    private Map<Long, String> savedAnswers;
 
     @Data
     @Builder
@@ -31,5 +34,6 @@ public class QuizResponse {
         private List<String> choices;
         @JsonProperty("correct_answer")
         private Object correctAnswer;
+        private Integer maxEdits;
     }
 }
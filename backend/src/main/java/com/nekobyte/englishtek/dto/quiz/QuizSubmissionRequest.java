@@ -1,14 +1,21 @@
 package com.nekobyte.englishtek.dto.quiz;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class QuizSubmissionRequest {
     @NotNull
     @Min(0)
     @Max(100)
     private Integer score;
+
+    // Question ID -> answer; multiple choice answers are an array of the selected choices.
+    // When present the server grades the answers and stores them on the attempt.
+    private Map<Long, JsonNode> answers;
 }
@@ -0,0 +1,19 @@
+package com.nekobyte.englishtek.dto.quiz;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class QuizSummaryResponse {
+    private Long id;
+    private Long chapterId;
+    private String title;
+    private String description;
+    private Integer difficulty;
+    private Integer maxScore;
+    private Integer numberOfItems;
+    private Long badgeId;
+    private Boolean isRandom;
+    private boolean completed;
+}
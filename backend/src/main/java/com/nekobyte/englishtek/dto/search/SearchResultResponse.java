@@ -0,0 +1,14 @@
+package com.nekobyte.englishtek.dto.search;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SearchResultResponse {
+    private String type;  // "chapter", "lesson", or "quiz"
+    private Long id;
+    private Long chapterId;
+    private String title;
+    private double score;
+}
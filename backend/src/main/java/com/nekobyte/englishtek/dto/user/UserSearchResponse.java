@@ -0,0 +1,27 @@
+package com.nekobyte.englishtek.dto.user;
+
+import com.nekobyte.englishtek.model.User.Role;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UserSearchResponse {
+    private List<Hit> users;
+    private int page;  // 0-based
+    private int size;
+    private long total;
+
+    @Data
+    @Builder
+    public static class Hit {
+        private Long id;
+        private String username;
+        private String name;
+        private String email;
+        private Role role;
+        private String avatarUrl;
+    }
+}
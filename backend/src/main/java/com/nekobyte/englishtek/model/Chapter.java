@@ -6,7 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -25,6 +27,15 @@ public class Chapter {
     @NotBlank
     private String description;
 
+    // Position in the chapter list; unlock falls back to the previous chapter in this order
+    private Integer sequence;
+
+    // Explicit prerequisite chapters; when empty the previous chapter in sequence is the prerequisite
+    @ElementCollection
+    @CollectionTable(name = "chapter_prerequisites", joinColumns = @JoinColumn(name = "chapter_id"))
+    @Column(name = "prerequisite_id")
+    private Set<Long> prerequisiteIds = new HashSet<>();
+
     @OneToMany(mappedBy = "chapter", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Lesson> lessons = new ArrayList<>();
 
@@ -0,0 +1,19 @@
+package com.nekobyte.englishtek.model;
+
+import com.nekobyte.englishtek.util.ContentCompression;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores text gzip-compressed in a binary column
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        return attribute != null ? ContentCompression.compress(attribute) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        return dbData != null ? ContentCompression.decompress(dbData) : null;
+    }
+}
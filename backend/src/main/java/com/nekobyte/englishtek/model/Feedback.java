@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "feedbacks")
+@Table(name = "feedbacks", indexes = @Index(name = "idx_feedbacks_chapter_created", columnList = "chapter_id, created_at"))
 public class Feedback {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
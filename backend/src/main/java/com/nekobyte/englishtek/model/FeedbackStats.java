@@ -0,0 +1,48 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running feedback totals for one chapter, adjusted whenever a feedback is submitted, changed or deleted,
+ * so the admin view never has to load every feedback to show the average and the spread.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "chapter_feedback_stats")
+public class FeedbackStats {
+    @Id
+    @Column(name = "chapter_id")
+    private Long chapterId;
+
+    @Column(name = "feedback_count")
+    private long feedbackCount;
+
+    @Column(name = "rating_sum")
+    private long ratingSum;
+
+    // Rating ("1" to "5") -> number of feedbacks with it
+    @Convert(converter = LongMapConverter.class)
+    @Column(name = "rating_counts", columnDefinition = "json")
+    private Map<String, Long> ratingCounts = new LinkedHashMap<>();
+
+    // Lower-cased keyword -> number of feedbacks with it; keywords no feedback uses any more are dropped
+    @Convert(converter = LongMapConverter.class)
+    @Column(name = "keyword_counts", columnDefinition = "json")
+    private Map<String, Long> keywordCounts = new LinkedHashMap<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,43 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The item a user should continue with, denormalized so the home screen is one primary-key read.
+ * A row is trusted only while its catalog version matches the chapter graph; otherwise it is recomputed.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "learning_pointers")
+public class LearningPointer {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // All null once every reachable item is completed
+    @Column(name = "chapter_id")
+    private Long chapterId;
+
+    @Column(name = "chapter_title")
+    private String chapterTitle;
+
+    @Column(name = "item_type")
+    private String itemType;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "item_title")
+    private String itemTitle;
+
+    @Column(name = "catalog_version", nullable = false)
+    private long catalogVersion;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
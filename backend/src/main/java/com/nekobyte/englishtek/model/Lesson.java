@@ -16,7 +16,9 @@ import java.util.List;
 @Table(name = "lessons")
 public class Lesson {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "lessons_id")
+    @TableGenerator(name = "lessons_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "lessons", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -28,9 +30,14 @@ public class Lesson {
     @ElementCollection
     @CollectionTable(
         name = "lesson_content",
-        joinColumns = @JoinColumn(name = "lesson_id")
+        joinColumns = @JoinColumn(name = "lesson_id"),
+        indexes = @Index(name = "idx_lesson_content_page", columnList = "lesson_id, page_index")
     )
-    @Column(name = "content", columnDefinition = "LONGTEXT")
+    // 0-based page position, so a single page can be read by (lesson_id, page_index)
+    @OrderColumn(name = "page_index")
+    // Pages are stored gzip-compressed; the legacy LONGTEXT 'content' column is emptied on migration
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_gz", columnDefinition = "LONGBLOB")
     private List<String> content = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Table(name = "lesson_attempts")
 public class LessonAttempt {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "lesson_attempts_id")
+    @TableGenerator(name = "lesson_attempts_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "lesson_attempts", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,45 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Last content page a user reached in a lesson. Keyed by (user, lesson) so heartbeats can be written
+ * as UPSERTs without looking up an attempt first.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "lesson_progress")
+@IdClass(LessonProgress.Key.class)
+public class LessonProgress {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    // 1-based index into Lesson.content
+    @Column(nullable = false)
+    private int page;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long userId;
+        private Long lessonId;
+    }
+}
@@ -0,0 +1,38 @@
+package com.nekobyte.englishtek.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Stores a string -> count map as a JSON object in a single column
+@Converter
+public class LongMapConverter implements AttributeConverter<Map<String, Long>, String> {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Long>> MAP_TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Long> attribute) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(attribute != null ? attribute : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize map: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return new LinkedHashMap<>(OBJECT_MAPPER.readValue(dbData, MAP_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse map: " + e.getMessage(), e);
+        }
+    }
+}
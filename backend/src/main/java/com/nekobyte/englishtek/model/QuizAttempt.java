@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Table(name = "quiz_attempts")
 public class QuizAttempt {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "quiz_attempts_id")
+    @TableGenerator(name = "quiz_attempts_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "quiz_attempts", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,6 +28,20 @@ public class QuizAttempt {
     @Column(nullable = false)
     private Integer score = 0;
 
+    // Submitted answers encoded as one JSON object of questionId -> answer, used for re-grading
+    @Column(columnDefinition = "json")
+    private String answers;
+
+    // Question ids in the order they were served, so a resumed random quiz keeps its shuffle
+    @Column(name = "question_order", columnDefinition = "json")
+    private String questionOrder;
+
+    // Autosaved answers of an in-progress attempt, same encoding as answers
+    @Column(name = "draft_answers", columnDefinition = "json")
+    private String draftAnswers;
+
+    private LocalDateTime draftSavedAt;
+
     private LocalDateTime startedAt;
 
     private LocalDateTime completedAt;
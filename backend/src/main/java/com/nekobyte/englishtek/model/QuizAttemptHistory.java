@@ -0,0 +1,58 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per submitted quiz attempt, never updated or deleted by the application. The table is
+ * range-partitioned by month on completed_at (primary key is id + completed_at), so queries should
+ * always bound completedAt to let MySQL prune partitions, and old months are dropped as whole partitions.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_attempt_history", indexes = {
+        @Index(name = "idx_quiz_attempt_history_user", columnList = "user_id, completed_at"),
+        @Index(name = "idx_quiz_attempt_history_user_quiz", columnList = "user_id, quiz_id, completed_at")
+})
+public class QuizAttemptHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "quiz_attempt_history_id")
+    @TableGenerator(name = "quiz_attempt_history_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "quiz_attempt_history", allocationSize = 50)
+    private Long id;
+
+    // Plain ids rather than associations so history survives content being deleted
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(name = "chapter_id")
+    private Long chapterId;
+
+    @Column(name = "quiz_title")
+    private String quizTitle;
+
+    @Column(nullable = false)
+    private Integer score;
+
+    @Column(name = "max_score")
+    private Integer maxScore;
+
+    @Column(name = "number_of_items")
+    private Integer numberOfItems;
+
+    @Column(columnDefinition = "json")
+    private String answers;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
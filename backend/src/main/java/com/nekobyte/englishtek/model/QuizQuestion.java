@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,10 +13,13 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "quiz_questions")
 public class QuizQuestion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "quiz_questions_id")
+    @TableGenerator(name = "quiz_questions_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "quiz_questions", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -27,17 +31,17 @@ public class QuizQuestion {
     @NotBlank
     private String title;
 
-    @ElementCollection
-    @CollectionTable(
-        name = "quiz_question_choices",
-        joinColumns = @JoinColumn(name = "question_id")
-    )
-    @Column(name = "choice")
+    @Convert(converter = StringListConverter.class)
+    @Column(name = "choices", columnDefinition = "json")
     private List<String> choices = new ArrayList<>();
 
     @Column(columnDefinition = "json")
     private String correctAnswer;
 
+    // Typos tolerated when grading identification answers (edit distance after normalization)
+    @Column(name = "max_edits", nullable = false)
+    private Integer maxEdits = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_id")
     @NotNull
@@ -0,0 +1,54 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running item-analysis totals for one question. Only sums are stored so every graded answer is an
+ * O(1) increment; rates and the discrimination index are derived from them when read.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_question_stats")
+public class QuizQuestionStats {
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    private long attempts;
+
+    @Column(name = "correct_count")
+    private long correctCount;
+
+    // Sums of the attempt's total score, used for the point-biserial discrimination index
+    @Column(name = "score_sum")
+    private long scoreSum;
+
+    @Column(name = "score_square_sum")
+    private long scoreSquareSum;
+
+    @Column(name = "correct_score_sum")
+    private long correctScoreSum;
+
+    @Convert(converter = LongMapConverter.class)
+    @Column(name = "choice_counts", columnDefinition = "json")
+    private Map<String, Long> choiceCounts = new LinkedHashMap<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
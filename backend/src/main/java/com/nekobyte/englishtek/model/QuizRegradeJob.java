@@ -0,0 +1,69 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_regrade_jobs")
+public class QuizRegradeJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RUNNING;
+
+    // Attempts are processed in id order; everything up to this id is already re-graded
+    @Column(name = "last_attempt_id", nullable = false)
+    private Long lastAttemptId = 0L;
+
+    @Column(name = "total_attempts")
+    private long totalAttempts;
+
+    @Column(name = "processed_attempts")
+    private long processedAttempts;
+
+    @Column(name = "changed_scores")
+    private long changedScores;
+
+    @Column(name = "badges_awarded")
+    private long badgesAwarded;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
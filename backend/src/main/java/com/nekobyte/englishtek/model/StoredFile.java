@@ -0,0 +1,31 @@
+package com.nekobyte.englishtek.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference count of an uploaded file stored under its content hash. Identical uploads share one file;
+ * it is removed from disk when the last reference is deleted.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stored_files")
+public class StoredFile {
+    // SHA-256 of the content in hex plus the upload's extension
+    @Id
+    @Column(name = "file_name", length = 80)
+    private String fileName;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "size")
+    private Long size;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
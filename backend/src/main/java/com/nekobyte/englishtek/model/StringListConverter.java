@@ -0,0 +1,38 @@
+package com.nekobyte.englishtek.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Stores a list of strings as a JSON array in a single column
+@Converter
+public class StringListConverter implements AttributeConverter<List<String>, String> {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> LIST_TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(List<String> attribute) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(attribute != null ? attribute : List.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize list: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new ArrayList<>(OBJECT_MAPPER.readValue(dbData, LIST_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse list: " + e.getMessage(), e);
+        }
+    }
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Table(name = "user_badges")
 public class UserBadge {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_badges_id")
+    @TableGenerator(name = "user_badges_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "user_badges", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -2,6 +2,25 @@ package com.nekobyte.englishtek.repository;
 
 import com.nekobyte.englishtek.model.Chapter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 
 public interface ChapterRepository extends JpaRepository<Chapter, Long> {
+    @Query("SELECT MAX(c.sequence) FROM Chapter c")
+    Integer findMaxSequence();
+
+    @Query("SELECT c.id FROM Chapter c")
+    List<Long> findAllIds();
+
+    @Query("SELECT c.id, c.sequence, c.title FROM Chapter c")
+    List<Object[]> findSequenceRows();
+
+    @Query("SELECT c.id, p FROM Chapter c JOIN c.prerequisiteIds p")
+    List<Object[]> findPrerequisiteRows();
+
+    @Modifying
+    @Query(value = "DELETE FROM chapter_prerequisites WHERE prerequisite_id = :chapterId", nativeQuery = true)
+    void deletePrerequisiteReferences(@Param("chapterId") Long chapterId);
 }
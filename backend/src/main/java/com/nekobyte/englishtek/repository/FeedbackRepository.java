@@ -1,6 +1,7 @@
 package com.nekobyte.englishtek.repository;
 
 import com.nekobyte.englishtek.model.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,6 +14,12 @@ import java.util.Optional;
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     List<Feedback> findByChapterId(Long chapterId);
+
+    // One joined query for a chapter's feedback; selects columns rather than entities so no User (with its eager badges) is loaded
+    @Query("SELECT f.id, u.id, u.username, c.id, c.title, f.rating, f.feedbackText, f.feedbackKeyword, f.createdAt, f.updatedAt " +
+            "FROM Feedback f JOIN f.user u JOIN f.chapter c WHERE c.id = :chapterId ORDER BY f.createdAt DESC, f.id DESC")
+    List<Object[]> findRowsByChapterId(@Param("chapterId") Long chapterId, Pageable pageable);
+
     Optional<Feedback> findByUserIdAndChapterId(Long userId, Long chapterId);
     List<Feedback> findByUserId(Long userId);
 
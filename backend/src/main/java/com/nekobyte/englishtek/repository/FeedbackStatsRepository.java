@@ -0,0 +1,35 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.FeedbackStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FeedbackStatsRepository extends JpaRepository<FeedbackStats, Long> {
+    // Serializes concurrent adjustments of the same chapter's totals
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM FeedbackStats s WHERE s.chapterId = :chapterId")
+    Optional<FeedbackStats> findForUpdate(@Param("chapterId") Long chapterId);
+
+    // A concurrent first write may have created the row already; its totals are just as current.
+    // The no-op update locks an existing row exclusively, as INSERT IGNORE's shared lock would deadlock
+    // two writers that both go on to lock it for update
+    @Modifying
+    @Query(value = "INSERT INTO chapter_feedback_stats (chapter_id, feedback_count, rating_sum, rating_counts, keyword_counts, updated_at) " +
+            "VALUES (:chapterId, :feedbackCount, :ratingSum, :ratingCounts, :keywordCounts, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE chapter_id = chapter_id", nativeQuery = true)
+    int insertIfAbsent(@Param("chapterId") Long chapterId, @Param("feedbackCount") long feedbackCount,
+                       @Param("ratingSum") long ratingSum, @Param("ratingCounts") String ratingCounts,
+                       @Param("keywordCounts") String keywordCounts);
+
+    @Modifying
+    @Query("DELETE FROM FeedbackStats s WHERE s.chapterId = :chapterId")
+    void deleteByChapterId(@Param("chapterId") Long chapterId);
+}
@@ -0,0 +1,30 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.LearningPointer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LearningPointerRepository extends JpaRepository<LearningPointer, Long> {
+    @Modifying
+    @Query("DELETE FROM LearningPointer p WHERE p.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    // Two requests may recompute the same user's pointer at once; the later write wins instead of failing
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO learning_pointers (user_id, chapter_id, chapter_title, item_type, item_id, item_title, catalog_version, updated_at) " +
+            "VALUES (:userId, :chapterId, :chapterTitle, :itemType, :itemId, :itemTitle, :catalogVersion, :updatedAt) " +
+            "ON DUPLICATE KEY UPDATE chapter_id = VALUES(chapter_id), chapter_title = VALUES(chapter_title), " +
+            "item_type = VALUES(item_type), item_id = VALUES(item_id), item_title = VALUES(item_title), " +
+            "catalog_version = VALUES(catalog_version), updated_at = VALUES(updated_at)", nativeQuery = true)
+    void upsert(@Param("userId") Long userId, @Param("chapterId") Long chapterId, @Param("chapterTitle") String chapterTitle,
+                @Param("itemType") String itemType, @Param("itemId") Long itemId, @Param("itemTitle") String itemTitle,
+                @Param("catalogVersion") long catalogVersion, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -17,6 +17,9 @@ public interface LessonAttemptRepository extends JpaRepository<LessonAttempt, Lo
     List<LessonAttempt> findByUserIdAndCompletedAtIsNotNull(Long userId);
     List<LessonAttempt> findByUserIdAndLesson_Chapter_Id(Long userId, Long chapterId);
 
+    @Query("SELECT la.lesson.id FROM LessonAttempt la WHERE la.user.id = :userId AND la.completedAt IS NOT NULL")
+    List<Long> findCompletedLessonIds(@Param("userId") Long userId);
+
     @Modifying
     @Query("DELETE FROM LessonAttempt la WHERE la.lesson.id = :lessonId")
     void deleteByLessonId(@Param("lessonId") Long lessonId);
@@ -0,0 +1,19 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.LessonProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LessonProgressRepository extends JpaRepository<LessonProgress, LessonProgress.Key> {
+    @Modifying
+    @Query("DELETE FROM LessonProgress p WHERE p.lessonId = :lessonId")
+    void deleteByLessonId(@Param("lessonId") Long lessonId);
+
+    @Modifying
+    @Query("DELETE FROM LessonProgress p WHERE p.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -2,8 +2,37 @@ package com.nekobyte.englishtek.repository;
 
 import com.nekobyte.englishtek.model.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
     List<Lesson> findByChapterId(Long chapterId);
+
+    @Query("SELECT MAX(l.order) FROM Lesson l WHERE l.chapter.id = :chapterId")
+    Integer findMaxOrderByChapterId(@Param("chapterId") Long chapterId);
+
+    @Query(value = "SELECT COUNT(*) FROM lesson_content WHERE lesson_id = :lessonId", nativeQuery = true)
+    int countContentPages(@Param("lessonId") Long lessonId);
+
+    // id, chapter id, title, description, page count; no page content is read
+    @Query("SELECT l.id, l.chapter.id, l.title, l.description, SIZE(l.content) FROM Lesson l ORDER BY l.chapter.id, l.order")
+    List<Object[]> findSummaryRows();
+
+    @Query("SELECT l.id, l.chapter.id, l.title, l.description, SIZE(l.content) FROM Lesson l " +
+           "WHERE l.chapter.id = :chapterId ORDER BY l.order")
+    List<Object[]> findSummaryRowsByChapterId(@Param("chapterId") Long chapterId);
+
+    // Returns stored (gzip) bytes; callers decompress or pass them through
+    @Query(value = "SELECT page_index, content_gz FROM lesson_content WHERE lesson_id = :lessonId " +
+                   "AND page_index BETWEEN :fromIndex AND :toIndex ORDER BY page_index", nativeQuery = true)
+    List<Object[]> findContentPages(@Param("lessonId") Long lessonId,
+                                    @Param("fromIndex") int fromIndex,
+                                    @Param("toIndex") int toIndex);
+
+    @Query(value = "SELECT content_gz FROM lesson_content WHERE content_gz IS NOT NULL LIMIT :limit", nativeQuery = true)
+    List<byte[]> findStoredContentSample(@Param("limit") int limit);
+
+    @Query("SELECT l.id, l.chapter.id, l.order, l.title FROM Lesson l")
+    List<Object[]> findOrderingRows();
 }
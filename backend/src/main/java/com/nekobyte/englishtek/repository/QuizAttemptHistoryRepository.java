@@ -0,0 +1,18 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.QuizAttemptHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Every query bounds completedAt so MySQL only reads the matching monthly partitions
+@Repository
+public interface QuizAttemptHistoryRepository extends JpaRepository<QuizAttemptHistory, Long> {
+    List<QuizAttemptHistory> findByUserIdAndCompletedAtBetweenOrderByCompletedAtDesc(
+            Long userId, LocalDateTime from, LocalDateTime to);
+
+    List<QuizAttemptHistory> findByUserIdAndQuizIdAndCompletedAtBetweenOrderByCompletedAtDesc(
+            Long userId, Long quizId, LocalDateTime from, LocalDateTime to);
+}
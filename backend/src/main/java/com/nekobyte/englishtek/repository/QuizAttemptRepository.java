@@ -1,12 +1,14 @@
 package com.nekobyte.englishtek.repository;
 
 import com.nekobyte.englishtek.model.QuizAttempt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
@@ -19,6 +21,31 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>
     void deleteByUserId(Long userId);
     List<QuizAttempt> findByUserIdAndCompletedAtIsNotNull(Long userId);
     List<QuizAttempt> findByUserIdAndQuiz_Chapter_Id(Long userId, Long chapterId);
+    long countByQuizIdAndCompletedAtIsNotNullAndAnswersIsNotNull(Long quizId);
+
+    @Query("SELECT qa.quiz.id, qa.score FROM QuizAttempt qa WHERE qa.user.id = :userId AND qa.completedAt IS NOT NULL")
+    List<Object[]> findCompletedQuizScores(@Param("userId") Long userId);
+
+    @Query("SELECT qa.id FROM QuizAttempt qa WHERE qa.quiz.id = :quizId AND qa.id > :afterId " +
+           "AND qa.completedAt IS NOT NULL AND qa.answers IS NOT NULL ORDER BY qa.id")
+    List<Long> findGradableIdsAfter(@Param("quizId") Long quizId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT qa.id, qa.user, qa.answers, qa.score, qa.completedAt FROM QuizAttempt qa WHERE qa.id IN :ids")
+    List<Object[]> findGradedAnswers(@Param("ids") List<Long> ids);
+
+    // Guarded on the graded submission so a retake, resubmission or another re-grade in between wins
+    @Modifying
+    @Query("UPDATE QuizAttempt qa SET qa.score = :score " +
+           "WHERE qa.id = :id AND qa.completedAt = :completedAt AND qa.score = :gradedScore")
+    int updateRegradedScore(@Param("id") Long id, @Param("completedAt") LocalDateTime completedAt,
+                            @Param("gradedScore") Integer gradedScore, @Param("score") Integer score);
+
+    // Guarded on completedAt so a late draft flush never touches a submitted attempt
+    @Modifying
+    @Query("UPDATE QuizAttempt qa SET qa.draftAnswers = :draftAnswers, qa.draftSavedAt = :savedAt " +
+           "WHERE qa.id = :id AND qa.completedAt IS NULL")
+    int updateDraft(@Param("id") Long id, @Param("draftAnswers") String draftAnswers, @Param("savedAt") LocalDateTime savedAt);
+
     @Modifying
     @Query("DELETE FROM QuizAttempt qa WHERE qa.quiz.id = :quizId")
     void deleteByQuizId(@Param("quizId") Long quizId);
@@ -0,0 +1,17 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.QuizQuestion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long> {
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM QuizQuestion q WHERE q.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
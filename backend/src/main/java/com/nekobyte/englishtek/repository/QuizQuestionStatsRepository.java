@@ -0,0 +1,20 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.QuizQuestionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuizQuestionStatsRepository extends JpaRepository<QuizQuestionStats, Long> {
+    List<QuizQuestionStats> findByQuizId(Long quizId);
+
+    @Modifying
+    @Query("DELETE FROM QuizQuestionStats s WHERE s.questionId IN :questionIds")
+    void deleteByQuestionIdIn(@Param("questionIds") Collection<Long> questionIds);
+}
@@ -0,0 +1,14 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.QuizRegradeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface QuizRegradeJobRepository extends JpaRepository<QuizRegradeJob, Long> {
+    List<QuizRegradeJob> findByStatus(QuizRegradeJob.Status status);
+    Optional<QuizRegradeJob> findFirstByQuizIdOrderByIdDesc(Long quizId);
+}
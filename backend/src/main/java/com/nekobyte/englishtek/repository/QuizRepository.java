@@ -1,14 +1,26 @@
 package com.nekobyte.englishtek.repository;
 
 import com.nekobyte.englishtek.model.Quiz;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
     List<Quiz> findByChapterId(Long chapterId);
+
+    @Query("SELECT MAX(q.order) FROM Quiz q WHERE q.chapter.id = :chapterId")
+    Integer findMaxOrderByChapterId(@Param("chapterId") Long chapterId);
+
+    @Query("SELECT q.id, q.chapter.id, q.order, q.maxScore, q.title FROM Quiz q")
+    List<Object[]> findOrderingRows();
+
+    // Loads the quiz and its questions (choices included) in one join
+    @EntityGraph(attributePaths = "questions")
+    Optional<Quiz> findWithQuestionsById(Long id);
     
     @Modifying
     @Query(value = "DELETE FROM quiz_questions WHERE quiz_id = :quizId", nativeQuery = true)
@@ -0,0 +1,33 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_files (file_name, ref_count, size, created_at) VALUES (:fileName, 1, :size, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    void acquire(@Param("fileName") String fileName, @Param("size") long size);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE stored_files SET ref_count = ref_count - 1 WHERE file_name = :fileName AND ref_count > 0", nativeQuery = true)
+    int release(@Param("fileName") String fileName);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM stored_files WHERE file_name = :fileName AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("fileName") String fileName);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM stored_files WHERE file_name = :fileName", nativeQuery = true)
+    int forget(@Param("fileName") String fileName);
+}
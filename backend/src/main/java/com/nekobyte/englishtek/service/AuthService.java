@@ -24,6 +24,7 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final FileStorageService fileStorageService;
+    private final UserSearchService userSearchService;
 
     @Value("${server.port}")
     private String serverPort;
@@ -51,6 +52,7 @@ public class AuthService {
         }
 
         userRepository.save(user);
+        userSearchService.index(user);
 
         String token = jwtService.generateToken(user);
         return createAuthResponse(user, token);
@@ -79,6 +81,7 @@ public class AuthService {
         }
 
         userRepository.save(user);
+        userSearchService.index(user);
 
         String token = jwtService.generateToken(user);
         return createAuthResponse(user, token);
@@ -0,0 +1,304 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.model.ChapterStatus;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.LessonAttemptRepository;
+import com.nekobyte.englishtek.repository.LessonRepository;
+import com.nekobyte.englishtek.repository.QuizAttemptRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached catalog structure used for unlock checks: chapters in sequence, their ordered items and the
+ * prerequisite graph. A chapter's prerequisites are its explicit ones, or the previous chapter in the
+ * sequence when none are set. The snapshot is rebuilt lazily after any catalog write commits, so a
+ * user's unlock state costs two id-only attempt queries plus one in-memory topological pass.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChapterGraph {
+    private final ChapterRepository chapterRepository;
+    private final LessonRepository lessonRepository;
+    private final QuizRepository quizRepository;
+    private final LessonAttemptRepository lessonAttemptRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+
+    private volatile Snapshot snapshot;
+    // Bumped on every invalidation; seeded from the clock so values from before a restart never match
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    long builtFrom = version.get();
+                    current = build(builtFrom);
+                    // Don't cache a snapshot that was invalidated while it was being read
+                    if (version.get() == builtFrom) {
+                        snapshot = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    // Called by every write that changes chapters, their items or quiz max scores
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rebuild during the transaction may have read the old rows; drop it again once committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                    snapshot = null;
+                }
+            });
+        }
+    }
+
+    public Map<Long, ChapterProgress> evaluate(Long userId) {
+        return evaluate(snapshot(), userId);
+    }
+
+    public Map<Long, ChapterProgress> evaluate(Snapshot graph, Long userId) {
+        Set<Long> completedLessons = new HashSet<>(lessonAttemptRepository.findCompletedLessonIds(userId));
+        Map<Long, Integer> quizScores = new HashMap<>();
+        for (Object[] row : quizAttemptRepository.findCompletedQuizScores(userId)) {
+            quizScores.put((Long) row[0], (Integer) row[1]);
+        }
+
+        // Prerequisites come before their dependants, so their completion is already known
+        Map<Long, ChapterProgress> progress = new LinkedHashMap<>();
+        for (Long chapterId : graph.topologicalOrder) {
+            List<Item> items = graph.items.getOrDefault(chapterId, List.of());
+            Set<Item> completedItems = new HashSet<>();
+            for (Item item : items) {
+                boolean completed = item.isLesson()
+                        ? completedLessons.contains(item.getId())
+                        : quizScores.containsKey(item.getId()) && item.getMaxScore() != null
+                                && quizScores.get(item.getId()) >= item.getMaxScore() * 0.8;
+                if (completed) {
+                    completedItems.add(item);
+                }
+            }
+
+            boolean unlocked = graph.prerequisites.getOrDefault(chapterId, List.of()).stream()
+                    .allMatch(prerequisiteId -> progress.get(prerequisiteId).isCompleted());
+            progress.put(chapterId, new ChapterProgress(chapterId, items.size(), completedItems, unlocked));
+        }
+        return progress;
+    }
+
+    // Rejects a sequence / prerequisite assignment whose effective graph would contain a cycle
+    public void validate(List<Long> sequence, Map<Long, ? extends Collection<Long>> explicitPrerequisites) {
+        Set<Long> known = new HashSet<>(sequence);
+        explicitPrerequisites.forEach((chapterId, prerequisites) -> {
+            for (Long prerequisiteId : prerequisites) {
+                if (!known.contains(prerequisiteId)) {
+                    throw new IllegalArgumentException("Prerequisite chapter " + prerequisiteId + " not found");
+                }
+                if (prerequisiteId.equals(chapterId)) {
+                    throw new IllegalArgumentException("A chapter cannot be its own prerequisite");
+                }
+            }
+        });
+
+        Map<Long, List<Long>> prerequisites = effectivePrerequisites(sequence, explicitPrerequisites);
+        if (topologicalOrder(sequence, prerequisites).size() < sequence.size()) {
+            throw new IllegalArgumentException("Chapter prerequisites would form a cycle");
+        }
+    }
+
+    // Stored prerequisite edges only, without the implicit previous-chapter fallback
+    public Map<Long, Set<Long>> explicitPrerequisites() {
+        Map<Long, Set<Long>> explicit = new HashMap<>();
+        for (Object[] row : chapterRepository.findPrerequisiteRows()) {
+            explicit.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+        return explicit;
+    }
+
+    private Snapshot build(long version) {
+        List<Object[]> chapterRows = new ArrayList<>(chapterRepository.findSequenceRows());
+        chapterRows.sort(Comparator.comparing((Object[] row) -> row[1] != null ? (Integer) row[1] : Integer.MAX_VALUE)
+                .thenComparing(row -> (Long) row[0]));
+        List<Long> sequence = new ArrayList<>();
+        Map<Long, String> titles = new HashMap<>();
+        for (Object[] row : chapterRows) {
+            sequence.add((Long) row[0]);
+            titles.put((Long) row[0], (String) row[2]);
+        }
+
+        Map<Long, Set<Long>> explicit = explicitPrerequisites();
+
+        Map<Long, List<Item>> items = new HashMap<>();
+        for (Object[] row : lessonRepository.findOrderingRows()) {
+            items.computeIfAbsent((Long) row[1], id -> new ArrayList<>())
+                    .add(new Item("lesson", (Long) row[0], (String) row[3], row[2] != null ? (Integer) row[2] : 0, null));
+        }
+        for (Object[] row : quizRepository.findOrderingRows()) {
+            items.computeIfAbsent((Long) row[1], id -> new ArrayList<>())
+                    .add(new Item("quiz", (Long) row[0], (String) row[4], row[2] != null ? (Integer) row[2] : 0, (Integer) row[3]));
+        }
+        items.values().forEach(list -> list.sort(Comparator.comparing(Item::getOrder)
+                .thenComparing(Item::getType)
+                .thenComparing(Item::getId)));
+
+        Map<Long, List<Long>> prerequisites = effectivePrerequisites(sequence, explicit);
+        List<Long> topologicalOrder = topologicalOrder(sequence, prerequisites);
+        if (topologicalOrder.size() < sequence.size()) {
+            // Writes are validated, so this only happens with hand-edited data; keep those chapters last
+            System.err.println("Chapter prerequisites contain a cycle; falling back to sequence order for the rest");
+            sequence.stream().filter(id -> !topologicalOrder.contains(id)).forEach(topologicalOrder::add);
+            topologicalOrder.forEach(id -> prerequisites.get(id).removeIf(prerequisiteId ->
+                    topologicalOrder.indexOf(prerequisiteId) > topologicalOrder.indexOf(id)));
+        }
+        return new Snapshot(version, sequence, topologicalOrder, prerequisites, titles, items);
+    }
+
+    private Map<Long, List<Long>> effectivePrerequisites(List<Long> sequence, Map<Long, ? extends Collection<Long>> explicit) {
+        Map<Long, List<Long>> prerequisites = new HashMap<>();
+        for (int i = 0; i < sequence.size(); i++) {
+            Long chapterId = sequence.get(i);
+            Collection<Long> own = explicit.get(chapterId);
+            if (own != null && !own.isEmpty()) {
+                prerequisites.put(chapterId, new ArrayList<>(own));
+            } else {
+                prerequisites.put(chapterId, i > 0 ? new ArrayList<>(List.of(sequence.get(i - 1))) : new ArrayList<>());
+            }
+        }
+        return prerequisites;
+    }
+
+    // Kahn's algorithm, taking ready chapters in sequence order; a result shorter than the input means a cycle
+    private List<Long> topologicalOrder(List<Long> sequence, Map<Long, List<Long>> prerequisites) {
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < sequence.size(); i++) {
+            position.put(sequence.get(i), i);
+        }
+        Map<Long, Integer> remaining = new HashMap<>();
+        Map<Long, List<Long>> dependants = new HashMap<>();
+        for (Long chapterId : sequence) {
+            List<Long> own = prerequisites.getOrDefault(chapterId, List.of());
+            remaining.put(chapterId, own.size());
+            own.forEach(prerequisiteId -> dependants.computeIfAbsent(prerequisiteId, id -> new ArrayList<>()).add(chapterId));
+        }
+
+        List<Long> order = new ArrayList<>();
+        Deque<Long> ready = new ArrayDeque<>();
+        sequence.stream().filter(id -> remaining.get(id) == 0).forEach(ready::add);
+        while (!ready.isEmpty()) {
+            Long chapterId = ready.poll();
+            order.add(chapterId);
+            List<Long> unlocked = new ArrayList<>();
+            for (Long dependant : dependants.getOrDefault(chapterId, List.of())) {
+                if (remaining.merge(dependant, -1, Integer::sum) == 0) {
+                    unlocked.add(dependant);
+                }
+            }
+            unlocked.sort(Comparator.comparing(position::get));
+            ready.addAll(unlocked);
+        }
+        return order;
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final long version;
+        private final List<Long> sequence;
+        private final List<Long> topologicalOrder;
+        private final Map<Long, List<Long>> prerequisites;
+        private final Map<Long, String> titles;
+        private final Map<Long, List<Item>> items;
+
+        Snapshot(long version, List<Long> sequence, List<Long> topologicalOrder, Map<Long, List<Long>> prerequisites,
+                 Map<Long, String> titles, Map<Long, List<Item>> items) {
+            this.version = version;
+            this.sequence = List.copyOf(sequence);
+            this.topologicalOrder = List.copyOf(topologicalOrder);
+            this.prerequisites = prerequisites;
+            this.titles = titles;
+            this.items = items;
+        }
+    }
+
+    @Getter
+    public static class Item {
+        private final String type;
+        private final Long id;
+        private final String title;
+        private final Integer order;
+        private final Integer maxScore;
+
+        Item(String type, Long id, String title, Integer order, Integer maxScore) {
+            this.type = type;
+            this.id = id;
+            this.title = title;
+            this.order = order;
+            this.maxScore = maxScore;
+        }
+
+        public boolean isLesson() {
+            return "lesson".equals(type);
+        }
+    }
+
+    @Getter
+    public static class ChapterProgress {
+        private final Long chapterId;
+        private final int totalTasks;
+        private final Set<Item> completedItems;
+        private final boolean unlocked;
+
+        ChapterProgress(Long chapterId, int totalTasks, Set<Item> completedItems, boolean unlocked) {
+            this.chapterId = chapterId;
+            this.totalTasks = totalTasks;
+            this.completedItems = completedItems;
+            this.unlocked = unlocked;
+        }
+
+        public int getCompletedTasks() {
+            return completedItems.size();
+        }
+
+        public boolean isCompleted() {
+            return completedItems.size() >= totalTasks;
+        }
+
+        public ChapterStatus getStatus() {
+            if (!unlocked) {
+                return ChapterStatus.LOCKED;
+            }
+            if (isCompleted()) {
+                return ChapterStatus.COMPLETED;
+            }
+            return completedItems.isEmpty() ? ChapterStatus.AVAILABLE : ChapterStatus.IN_PROGRESS;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.nekobyte.englishtek.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nekobyte.englishtek.dto.badge.BadgeRequest;
+import com.nekobyte.englishtek.dto.chapter.ChapterImportResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonRequest;
+import com.nekobyte.englishtek.dto.quiz.QuizRequest;
+import com.nekobyte.englishtek.model.Badge;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Lesson;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.repository.BadgeRepository;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.LessonRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a whole chapter from one JSON document:
+ * <pre>
+ * {
+ *   "chapterId": 1,                                   // or "chapter": {"title", "description", "icon"}
+ *   "badges": [{"key", "name", "description", "iconUrl"}],
+ *   "items": [{"type": "lesson", ...LessonRequest}, {"type": "quiz", "badgeKey", ...QuizRequest}]
+ * }
+ * </pre>
+ * The chapter must come before badges and items, and badges before the quizzes that use them.
+ * Items are parsed one at a time and written in batches, so only one batch is held in memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChapterImportService {
+    private static final int BATCH_SIZE = 50;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ChapterRepository chapterRepository;
+    private final LessonRepository lessonRepository;
+    private final QuizRepository quizRepository;
+    private final BadgeRepository badgeRepository;
+    private final QuizService quizService;
+    private final ChapterItemOrdering chapterItemOrdering;
+    private final ChapterGraph chapterGraph;
+    private final SearchIndexService searchIndexService;
+
+    public ChapterImportResponse importChapter(InputStream inputStream) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ImportState state = new ImportState();
+
+        try {
+            try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Import document must be a JSON object");
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+
+                    switch (field) {
+                        case "chapterId" -> state.chapterId = resolveExistingChapter(parser.getLongValue(), state);
+                        case "chapter" -> state.chapterId = createChapter(parser.readValueAs(ChapterPart.class), transactionTemplate, state);
+                        case "badges" -> readArray(parser, "badges", node -> importBadge(node, state, transactionTemplate));
+                        case "items" -> readArray(parser, "items", node -> addItem(node, state, transactionTemplate));
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+
+            flushBatch(state, transactionTemplate);
+        } finally {
+            // Batches commit separately, so index whatever made it in even if the import stopped early
+            if (state.chapterId != null) {
+                searchIndexService.reindexChapter(state.chapterId);
+            }
+        }
+        state.results.sort(Comparator.comparingInt(ChapterImportResponse.ItemResult::getIndex));
+
+        return ChapterImportResponse.builder()
+                .chapterId(state.chapterId)
+                .imported((int) state.results.stream().filter(ChapterImportResponse.ItemResult::isSuccess).count())
+                .failed((int) state.results.stream().filter(result -> !result.isSuccess()).count())
+                .items(state.results)
+                .build();
+    }
+
+    private void readArray(JsonParser parser, String field, NodeHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("'" + field + "' must be an array");
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            handler.handle(parser.readValueAsTree());
+        }
+    }
+
+    private Long resolveExistingChapter(long chapterId, ImportState state) {
+        if (!chapterRepository.existsById(chapterId)) {
+            throw new IllegalArgumentException("Chapter not found");
+        }
+        state.nextOrder = chapterItemOrdering.nextOrder(chapterId);
+        return chapterId;
+    }
+
+    private Long createChapter(ChapterPart part, TransactionTemplate transactionTemplate, ImportState state) {
+        String error = validate(part);
+        if (error != null) {
+            throw new IllegalArgumentException("Invalid chapter: " + error);
+        }
+        state.nextOrder = ChapterItemOrdering.GAP;
+        return transactionTemplate.execute(status -> {
+            Chapter chapter = new Chapter();
+            chapter.setTitle(part.getTitle());
+            chapter.setDescription(part.getDescription());
+            chapter.setIcon(part.getIcon());
+            Integer maxSequence = chapterRepository.findMaxSequence();
+            chapter.setSequence(maxSequence != null ? maxSequence + 1 : 1);
+            chapterGraph.invalidate();
+            return chapterRepository.save(chapter).getId();
+        });
+    }
+
+    private void importBadge(JsonNode node, ImportState state, TransactionTemplate transactionTemplate) {
+        int index = state.nextIndex++;
+        try {
+            BadgePart part = objectMapper.treeToValue(node, BadgePart.class);
+            String error = validate(part);
+            if (error == null && (part.getKey() == null || part.getKey().isBlank())) {
+                error = "key: must not be blank";
+            }
+            if (error != null) {
+                state.results.add(failure(index, "badge", part.getName(), error));
+                return;
+            }
+
+            Long badgeId = transactionTemplate.execute(status -> {
+                Badge badge = new Badge();
+                badge.setName(part.getName());
+                badge.setDescription(part.getDescription());
+                badge.setIconUrl(part.getIconUrl());
+                return badgeRepository.save(badge).getId();
+            });
+            state.badgeIds.put(part.getKey(), badgeId);
+            state.results.add(success(index, "badge", part.getName(), badgeId));
+        } catch (Exception e) {
+            state.results.add(failure(index, "badge", null, e.getMessage()));
+        }
+    }
+
+    private void addItem(JsonNode node, ImportState state, TransactionTemplate transactionTemplate) {
+        if (state.chapterId == null) {
+            throw new IllegalArgumentException("'chapter' or 'chapterId' must appear before 'items'");
+        }
+
+        int index = state.nextIndex++;
+        if (!(node instanceof ObjectNode item)) {
+            state.results.add(failure(index, null, null, "Item must be a JSON object"));
+            return;
+        }
+
+        String type = item.path("type").asText(null);
+        String title = item.path("title").asText(null);
+        item.remove("type");
+        item.put("chapterId", state.chapterId);
+
+        try {
+            if ("lesson".equalsIgnoreCase(type)) {
+                LessonRequest request = objectMapper.treeToValue(item, LessonRequest.class);
+                String error = validate(request);
+                if (error != null) {
+                    state.results.add(failure(index, "lesson", title, error));
+                    return;
+                }
+                state.pending.add(new PendingItem(index, "lesson", title, request));
+            } else if ("quiz".equalsIgnoreCase(type)) {
+                String badgeKey = item.path("badgeKey").asText(null);
+                item.remove("badgeKey");
+                QuizRequest request = objectMapper.treeToValue(item, QuizRequest.class);
+                if (badgeKey != null) {
+                    Long badgeId = state.badgeIds.get(badgeKey);
+                    if (badgeId == null) {
+                        state.results.add(failure(index, "quiz", title, "Unknown badge key: " + badgeKey));
+                        return;
+                    }
+                    request.setBadgeId(badgeId);
+                }
+                String error = validate(request);
+                if (error != null) {
+                    state.results.add(failure(index, "quiz", title, error));
+                    return;
+                }
+                state.pending.add(new PendingItem(index, "quiz", title, request));
+            } else {
+                state.results.add(failure(index, type, title, "Invalid item type: " + type));
+                return;
+            }
+        } catch (Exception e) {
+            state.results.add(failure(index, type, title, e.getMessage()));
+            return;
+        }
+
+        if (state.pending.size() >= BATCH_SIZE) {
+            flushBatch(state, transactionTemplate);
+        }
+    }
+
+    private void flushBatch(ImportState state, TransactionTemplate transactionTemplate) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingItem> batch = new ArrayList<>(state.pending);
+        state.pending.clear();
+        int firstOrder = state.nextOrder;
+
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                // Each committed batch changes the chapter's task count
+                chapterGraph.invalidate();
+                List<Long> written = writeBatch(batch, state.chapterId, firstOrder);
+                // The batch is flushed; keep the persistence context from growing across batches
+                entityManager.clear();
+                return written;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                PendingItem item = batch.get(i);
+                state.results.add(success(item.getIndex(), item.getType(), item.getTitle(), ids.get(i)));
+            }
+            state.nextOrder += batch.size() * ChapterItemOrdering.GAP;
+        } catch (Exception e) {
+            for (PendingItem item : batch) {
+                state.results.add(failure(item.getIndex(), item.getType(), item.getTitle(), "Batch failed: " + e.getMessage()));
+            }
+        }
+    }
+
+    private List<Long> writeBatch(List<PendingItem> batch, Long chapterId, int firstOrder) {
+        Chapter chapter = chapterRepository.getReferenceById(chapterId);
+        List<Object> entities = new ArrayList<>();
+        int order = firstOrder;
+
+        for (PendingItem item : batch) {
+            if (item.getRequest() instanceof LessonRequest request) {
+                Lesson lesson = new Lesson();
+                lesson.setChapter(chapter);
+                lesson.setTitle(request.getTitle());
+                lesson.setDescription(request.getDescription());
+                lesson.setContent(request.getContent());
+                lesson.setOrder(order);
+                order += ChapterItemOrdering.GAP;
+                entities.add(lessonRepository.save(lesson));
+            } else if (item.getRequest() instanceof QuizRequest request) {
+                Quiz quiz = new Quiz();
+                quiz.setChapter(chapter);
+                quiz.setTitle(request.getTitle());
+                quiz.setDescription(request.getDescription());
+                quiz.setDifficulty(request.getDifficulty());
+                quiz.setMaxScore(request.getMaxScore());
+                quiz.setIsRandom(request.getIsRandom() != null ? request.getIsRandom() : false);
+                quiz.setNumberOfItems(request.getQuestions().size());
+                quiz.setOrder(order);
+                order += ChapterItemOrdering.GAP;
+                if (request.getBadgeId() != null) {
+                    quiz.setBadge(badgeRepository.getReferenceById(request.getBadgeId()));
+                }
+                for (QuizRequest.QuestionRequest questionRequest : request.getQuestions()) {
+                    QuizQuestion question = quizService.createQuestion(quiz, questionRequest);
+                    quiz.getQuestions().add(question);
+                }
+                entities.add(quizRepository.save(quiz));
+            }
+        }
+
+        // Flush once so the whole batch goes out as batched inserts
+        entityManager.flush();
+
+        return entities.stream()
+                .map(entity -> entity instanceof Lesson lesson ? lesson.getId() : ((Quiz) entity).getId())
+                .collect(Collectors.toList());
+    }
+
+    private String validate(Object target) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(target);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private ChapterImportResponse.ItemResult success(int index, String type, String title, Long id) {
+        return ChapterImportResponse.ItemResult.builder()
+                .index(index)
+                .type(type)
+                .title(title)
+                .id(id)
+                .success(true)
+                .build();
+    }
+
+    private ChapterImportResponse.ItemResult failure(int index, String type, String title, String error) {
+        return ChapterImportResponse.ItemResult.builder()
+                .index(index)
+                .type(type)
+                .title(title)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface NodeHandler {
+        void handle(JsonNode node) throws IOException;
+    }
+
+    private static class ImportState {
+        private Long chapterId;
+        private int nextOrder;
+        private int nextIndex;
+        private final Map<String, Long> badgeIds = new HashMap<>();
+        private final List<PendingItem> pending = new ArrayList<>();
+        private final List<ChapterImportResponse.ItemResult> results = new ArrayList<>();
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class PendingItem {
+        private int index;
+        private String type;
+        private String title;
+        private Object request;
+    }
+
+    @Data
+    static class ChapterPart {
+        @NotBlank
+        private String title;
+
+        @NotBlank
+        private String description;
+
+        private String icon;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class BadgePart extends BadgeRequest {
+        private String key;
+    }
+}
@@ -0,0 +1,147 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.chapter.ChapterItemMoveRequest;
+import com.nekobyte.englishtek.dto.chapter.ChapterRearrangeRequest;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Lesson;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.repository.LessonRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sparse sort keys for the lessons and quizzes of a chapter, which share one item_order space.
+ * Keys are spaced GAP apart, so a move writes only the moved row (the midpoint of its new neighbours);
+ * the chapter is respaced only when two neighbours have no free key left between them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChapterItemOrdering {
+    public static final int GAP = 1024;
+
+    private final LessonRepository lessonRepository;
+    private final QuizRepository quizRepository;
+
+    // Key for an item appended at the end of the chapter
+    public int nextOrder(Long chapterId) {
+        Integer lessonMax = lessonRepository.findMaxOrderByChapterId(chapterId);
+        Integer quizMax = quizRepository.findMaxOrderByChapterId(chapterId);
+        int max = Math.max(lessonMax != null ? lessonMax : 0, quizMax != null ? quizMax : 0);
+        return max + GAP;
+    }
+
+    public void move(Chapter chapter, ChapterItemMoveRequest request) {
+        List<Item> items = currentOrder(chapter);
+        Item moving = find(items, request.getItem());
+        items.remove(moving);
+
+        Item previous = request.getAfter() != null ? find(items, request.getAfter()) : null;
+        Item next = request.getBefore() != null ? find(items, request.getBefore()) : null;
+        if (previous == null && next == null) {
+            if (!items.isEmpty()) {
+                throw new IllegalArgumentException("Specify the item to move before or after");
+            }
+            return;
+        }
+
+        int nextIndex = next != null ? items.indexOf(next) : items.indexOf(previous) + 1;
+        if (previous != null && items.indexOf(previous) != nextIndex - 1) {
+            throw new IllegalArgumentException("'after' and 'before' must be adjacent items");
+        }
+
+        Integer low = nextIndex > 0 ? items.get(nextIndex - 1).getOrder() : null;
+        Integer high = nextIndex < items.size() ? items.get(nextIndex).getOrder() : null;
+        if (low == null) {
+            moving.setOrder(high - GAP);
+        } else if (high == null) {
+            moving.setOrder(low + GAP);
+        } else if (high - low > 1) {
+            moving.setOrder(low + (high - low) / 2);
+        } else {
+            // No free key between the neighbours: respace the chapter once
+            items.add(nextIndex, moving);
+            respace(items);
+        }
+    }
+
+    // Applies a complete order; only items whose key actually changes are written
+    public void rearrange(Chapter chapter, List<ChapterRearrangeRequest.ChapterItemOrder> order) {
+        List<Item> items = currentOrder(chapter);
+        List<Item> arranged = new ArrayList<>();
+        for (ChapterRearrangeRequest.ChapterItemOrder itemOrder : order) {
+            arranged.add(find(items, itemOrder));
+        }
+        respace(arranged);
+    }
+
+    private void respace(List<Item> items) {
+        for (int i = 0; i < items.size(); i++) {
+            int key = (i + 1) * GAP;
+            if (!Objects.equals(items.get(i).getOrder(), key)) {
+                items.get(i).setOrder(key);
+            }
+        }
+    }
+
+    private List<Item> currentOrder(Chapter chapter) {
+        List<Item> items = new ArrayList<>();
+        if (chapter.getLessons() != null) {
+            chapter.getLessons().forEach(lesson -> items.add(new Item(lesson, null)));
+        }
+        if (chapter.getQuizzes() != null) {
+            chapter.getQuizzes().forEach(quiz -> items.add(new Item(null, quiz)));
+        }
+        items.sort(Comparator.comparing((Item item) -> item.getOrder() != null ? item.getOrder() : 0)
+                .thenComparing(Item::getType)
+                .thenComparing(Item::getId));
+        return items;
+    }
+
+    private Item find(List<Item> items, ChapterRearrangeRequest.ChapterItemOrder ref) {
+        String type = ref.getType() != null ? ref.getType().toLowerCase() : null;
+        if (!"lesson".equals(type) && !"quiz".equals(type)) {
+            throw new IllegalArgumentException("Invalid item type: " + ref.getType());
+        }
+        return items.stream()
+                .filter(item -> item.getType().equals(type) && item.getId().equals(ref.getId()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        ("lesson".equals(type) ? "Lesson" : "Quiz") + " with ID " + ref.getId() + " not found in this chapter"));
+    }
+
+    private static class Item {
+        private final Lesson lesson;
+        private final Quiz quiz;
+
+        Item(Lesson lesson, Quiz quiz) {
+            this.lesson = lesson;
+            this.quiz = quiz;
+        }
+
+        String getType() {
+            return lesson != null ? "lesson" : "quiz";
+        }
+
+        Long getId() {
+            return lesson != null ? lesson.getId() : quiz.getId();
+        }
+
+        Integer getOrder() {
+            return lesson != null ? lesson.getOrder() : quiz.getOrder();
+        }
+
+        void setOrder(int order) {
+            if (lesson != null) {
+                lesson.setOrder(order);
+            } else {
+                quiz.setOrder(order);
+            }
+        }
+    }
+}
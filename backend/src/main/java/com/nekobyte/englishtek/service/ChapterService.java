@@ -4,7 +4,10 @@ import com.nekobyte.englishtek.dto.chapter.ChapterRequest;
 import com.nekobyte.englishtek.dto.chapter.ChapterResponse;
 import com.nekobyte.englishtek.dto.chapter.ChapterDetailResponse;
 import com.nekobyte.englishtek.dto.chapter.ChapterListResponse;
+import com.nekobyte.englishtek.dto.chapter.ChapterItemMoveRequest;
 import com.nekobyte.englishtek.dto.chapter.ChapterRearrangeRequest;
+import com.nekobyte.englishtek.dto.chapter.ChapterPrerequisitesRequest;
+import com.nekobyte.englishtek.dto.chapter.ChapterSequenceRequest;
 import com.nekobyte.englishtek.model.Chapter;
 import com.nekobyte.englishtek.model.ChapterStatus;
 import com.nekobyte.englishtek.model.User;
@@ -15,7 +18,6 @@ import com.nekobyte.englishtek.repository.LessonAttemptRepository;
 import com.nekobyte.englishtek.repository.QuizAttemptRepository;
 import com.nekobyte.englishtek.repository.UserRepository;
 import com.nekobyte.englishtek.repository.FeedbackRepository;
-import com.nekobyte.englishtek.repository.UserBadgeRepository;
 import com.nekobyte.englishtek.repository.BadgeRepository;
 import com.nekobyte.englishtek.service.BadgeService;
 import lombok.RequiredArgsConstructor;
@@ -38,8 +40,11 @@ public class ChapterService {
     private final LessonAttemptRepository lessonAttemptRepository;
     private final QuizAttemptRepository quizAttemptRepository;
     private final FeedbackRepository feedbackRepository;
-    private final UserBadgeRepository userBadgeRepository;
+    private final FeedbackStatsService feedbackStatsService;
     private final BadgeService badgeService;
+    private final ChapterItemOrdering chapterItemOrdering;
+    private final ChapterGraph chapterGraph;
+    private final SearchIndexService searchIndexService;
 
     private User getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -49,30 +54,34 @@ public class ChapterService {
 
     public List<ChapterListResponse> getAllChapters() {
         User currentUser = getCurrentUser();
-        
-        // Create a copy of the chapters list to avoid concurrent modification
-        List<Chapter> chapters = new ArrayList<>(chapterRepository.findAll());
-        chapters.sort(Comparator.comparing(Chapter::getId));
 
-        // Create a new list to store responses
-        List<ChapterListResponse> responses = new ArrayList<>();
+        // Progress and unlock state for every chapter come from one pass over the cached graph
+        Map<Long, ChapterGraph.ChapterProgress> progress = chapterGraph.evaluate(currentUser.getId());
+        ChapterGraph.Snapshot graph = chapterGraph.snapshot();
+        Map<Long, Chapter> chapters = chapterRepository.findAll().stream()
+                .collect(Collectors.toMap(Chapter::getId, chapter -> chapter));
 
-        // Process each chapter sequentially
-        for (Chapter chapter : new ArrayList<>(chapters)) {  // Create another copy for iteration
-            int totalTasks = countTotalTasks(chapter);
-            int completedTasks = countCompletedTasks(chapter, currentUser.getId());
-            ChapterStatus status = determineChapterStatus(chapter, currentUser.getId(), chapters, completedTasks, totalTasks);
-            
+        List<ChapterListResponse> responses = new ArrayList<>();
+        for (Long chapterId : graph.getSequence()) {
+            Chapter chapter = chapters.get(chapterId);
+            ChapterGraph.ChapterProgress chapterProgress = progress.get(chapterId);
+            if (chapter == null || chapterProgress == null) {
+                continue;
+            }
+            int totalTasks = chapterProgress.getTotalTasks();
+            int completedTasks = chapterProgress.getCompletedTasks();
             double progressPercentage = totalTasks > 0 ? (completedTasks * 100.0) / totalTasks : 0;
-            
+
             responses.add(ChapterListResponse.builder()
                     .id(chapter.getId())
                     .icon(chapter.getIcon() != null ? "/api/v1/files/" + chapter.getIcon() : null)
                     .title(chapter.getTitle())
+                    .sequence(chapter.getSequence())
+                    .prerequisiteIds(graph.getPrerequisites().getOrDefault(chapterId, List.of()))
                     .totalTasks(totalTasks)
                     .completedTasks(completedTasks)
                     .progressPercentage(progressPercentage)
-                    .status(status)
+                    .status(chapterProgress.getStatus())
                     .build());
         }
 
@@ -85,21 +94,16 @@ public class ChapterService {
             Chapter chapter = chapterRepository.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Chapter not found"));
                     
-            // Get all chapters and sort them by ID
-            List<Chapter> chapters = chapterRepository.findAll();
-            chapters.sort(Comparator.comparing(Chapter::getId));
-            
             // Calculate progress and status
-            int totalTasks = countTotalTasks(chapter);
-            int completedTasks = countCompletedTasks(chapter, currentUser.getId());
-            
-            System.out.println("About to determine status for chapter " + id);
-            ChapterStatus status = determineChapterStatus(chapter, currentUser.getId(), chapters, completedTasks, totalTasks);
+            ChapterGraph.ChapterProgress progress = chapterGraph.evaluate(currentUser.getId()).get(id);
+            int totalTasks = progress != null ? progress.getTotalTasks() : 0;
+            int completedTasks = progress != null ? progress.getCompletedTasks() : 0;
+            ChapterStatus status = progress != null ? progress.getStatus() : ChapterStatus.LOCKED;
             System.out.println("Status determined: " + status);
             
             // Only check if chapter is locked for non-admin users
             if (!currentUser.getRole().name().equals("ADMIN") && status == ChapterStatus.LOCKED) {
-                throw new IllegalStateException("This chapter is locked. Please complete the previous chapter first.");
+                throw new IllegalStateException("This chapter is locked. Please complete the prerequisite chapters first.");
             }
             
             try {
@@ -130,7 +134,13 @@ public class ChapterService {
             chapter.setIcon(fileName);
         }
 
+        // New chapters go last
+        Integer maxSequence = chapterRepository.findMaxSequence();
+        chapter.setSequence(maxSequence != null ? maxSequence + 1 : 1);
+
         chapter = chapterRepository.save(chapter);
+        chapterGraph.invalidate();
+        searchIndexService.indexChapter(chapter);
         return mapToResponse(chapter);
     }
 
@@ -152,6 +162,8 @@ public class ChapterService {
         }
 
         chapter = chapterRepository.save(chapter);
+        chapterGraph.invalidate();
+        searchIndexService.indexChapter(chapter);
         return mapToResponse(chapter);
     }
 
@@ -169,6 +181,10 @@ public class ChapterService {
         
         // Delete all feedbacks for this chapter
         feedbackRepository.deleteByChapterId(id);
+        feedbackStatsService.deleteChapter(id);
+
+        // Chapters that required this one fall back to their remaining (or default) prerequisites
+        chapterRepository.deletePrerequisiteReferences(id);
         
         // Delete icon file if it exists
         if (chapter.getIcon() != null) {
@@ -176,6 +192,50 @@ public class ChapterService {
         }
         
         chapterRepository.delete(chapter);
+        chapterGraph.invalidate();
+        searchIndexService.removeChapter(id);
+    }
+
+    @Transactional
+    public List<ChapterListResponse> updateChapterSequence(ChapterSequenceRequest request) {
+        List<Chapter> chapters = chapterRepository.findAll();
+        Map<Long, Chapter> chaptersById = chapters.stream()
+                .collect(Collectors.toMap(Chapter::getId, chapter -> chapter));
+        if (request.getChapterIds().size() != chapters.size()
+                || !chaptersById.keySet().equals(new HashSet<>(request.getChapterIds()))) {
+            throw new IllegalArgumentException("The sequence must list every chapter exactly once");
+        }
+
+        // The implicit previous-chapter edges change with the order, so the whole graph is rechecked
+        chapterGraph.validate(request.getChapterIds(), chapterGraph.explicitPrerequisites());
+
+        for (int i = 0; i < request.getChapterIds().size(); i++) {
+            Chapter chapter = chaptersById.get(request.getChapterIds().get(i));
+            if (!Objects.equals(chapter.getSequence(), i + 1)) {
+                chapter.setSequence(i + 1);
+            }
+        }
+        chapterRepository.saveAll(chapters);
+        chapterGraph.invalidate();
+
+        return getAllChapters();
+    }
+
+    @Transactional
+    public ChapterResponse updateChapterPrerequisites(Long id, ChapterPrerequisitesRequest request) {
+        Chapter chapter = chapterRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Chapter not found"));
+
+        Map<Long, Set<Long>> prerequisites = chapterGraph.explicitPrerequisites();
+        prerequisites.put(id, request.getPrerequisiteIds());
+        chapterGraph.validate(chapterGraph.snapshot().getSequence(), prerequisites);
+
+        chapter.getPrerequisiteIds().clear();
+        chapter.getPrerequisiteIds().addAll(request.getPrerequisiteIds());
+        chapter = chapterRepository.save(chapter);
+        chapterGraph.invalidate();
+
+        return mapToResponse(chapter);
     }
 
     @Transactional
@@ -183,58 +243,35 @@ public class ChapterService {
         Chapter chapter = chapterRepository.findById(chapterId)
                 .orElseThrow(() -> new IllegalArgumentException("Chapter not found"));
 
-        // Delete all lesson attempts for lessons in this chapter
-        for (Lesson lesson : chapter.getLessons()) {
-            lessonAttemptRepository.deleteByLessonId(lesson.getId());
-        }
+        // Reordering keeps learners' attempts and badges; progress is tracked per item, not per position.
+        // Items whose key is unchanged are left untouched, so only moved rows are written.
+        chapterItemOrdering.rearrange(chapter, request.getOrder());
+        chapterRepository.save(chapter);
+        chapterGraph.invalidate();
 
-        // Delete all quiz attempts and related user badges for quizzes in this chapter
-        for (Quiz quiz : chapter.getQuizzes()) {
-            quizAttemptRepository.deleteByQuizId(quiz.getId());
-            // Delete user badges where the badge is from this quiz
-            if (quiz.getBadge() != null) {
-                userBadgeRepository.deleteByBadgeId(quiz.getBadge().getId());
-            }
-        }
+        return mapToDetailResponse(chapter);
+    }
 
-        // Create maps to store items by their IDs for quick access
-        Map<Long, Lesson> lessonMap = chapter.getLessons().stream()
-                .collect(Collectors.toMap(Lesson::getId, lesson -> lesson));
-        Map<Long, Quiz> quizMap = chapter.getQuizzes().stream()
-                .collect(Collectors.toMap(Quiz::getId, quiz -> quiz));
-
-        // Process each item in the new order and update their order field
-        for (int i = 0; i < request.getOrder().size(); i++) {
-            ChapterRearrangeRequest.ChapterItemOrder item = request.getOrder().get(i);
-            if ("lesson".equalsIgnoreCase(item.getType())) {
-                Lesson lesson = lessonMap.get(item.getId());
-                if (lesson == null) {
-                    throw new IllegalArgumentException("Lesson with ID " + item.getId() + " not found in this chapter");
-                }
-                lesson.setOrder(i);
-            } else if ("quiz".equalsIgnoreCase(item.getType())) {
-                Quiz quiz = quizMap.get(item.getId());
-                if (quiz == null) {
-                    throw new IllegalArgumentException("Quiz with ID " + item.getId() + " not found in this chapter");
-                }
-                quiz.setOrder(i);
-            } else {
-                throw new IllegalArgumentException("Invalid item type: " + item.getType());
-            }
-        }
+    @Transactional
+    public ChapterDetailResponse moveChapterItem(Long chapterId, ChapterItemMoveRequest request) {
+        Chapter chapter = chapterRepository.findById(chapterId)
+                .orElseThrow(() -> new IllegalArgumentException("Chapter not found"));
 
-        // Save the updated chapter
+        // Writes only the moved item (the chapter is respaced if its neighbours have no key between them)
+        chapterItemOrdering.move(chapter, request);
         chapterRepository.save(chapter);
+        chapterGraph.invalidate();
 
-        // Return the updated chapter details
-        User currentUser = getCurrentUser();
-        int totalTasks = countTotalTasks(chapter);
-        int completedTasks = countCompletedTasks(chapter, currentUser.getId());
-        List<Chapter> chapters = chapterRepository.findAll();
-        chapters.sort(Comparator.comparing(Chapter::getId));
-        ChapterStatus status = determineChapterStatus(chapter, currentUser.getId(), chapters, completedTasks, totalTasks);
+        return mapToDetailResponse(chapter);
+    }
 
-        return mapToDetailResponse(chapter, currentUser, status, completedTasks, totalTasks);
+    private ChapterDetailResponse mapToDetailResponse(Chapter chapter) {
+        User currentUser = getCurrentUser();
+        ChapterGraph.ChapterProgress progress = chapterGraph.evaluate(currentUser.getId()).get(chapter.getId());
+        if (progress == null) {
+            return mapToDetailResponse(chapter, currentUser, ChapterStatus.LOCKED, 0, 0);
+        }
+        return mapToDetailResponse(chapter, currentUser, progress.getStatus(), progress.getCompletedTasks(), progress.getTotalTasks());
     }
 
     private ChapterResponse mapToResponse(Chapter chapter) {
@@ -297,84 +334,13 @@ public class ChapterService {
                 .title(chapter.getTitle())
                 .description(chapter.getDescription())
                 .iconUrl(iconUrl)
+                .sequence(chapter.getSequence())
+                .prerequisiteIds(new HashSet<>(chapter.getPrerequisiteIds()))
                 .items(items)
                 .hasCompletedFeedback(hasCompletedFeedback)
                 .build();
     }
 
-    private ChapterListResponse mapToListResponse(Chapter chapter, Long userId, List<Chapter> allChapters) {
-        // Create a list of ChapterItems that combines both lessons and quizzes
-        List<ChapterItem> chapterItems = new ArrayList<>();
-        
-        if (chapter.getLessons() != null) {
-            int order = 0;
-            for (Lesson lesson : chapter.getLessons()) {
-                boolean completed = lessonAttemptRepository
-                    .findByUserIdAndLessonId(userId, lesson.getId())
-                    .map(attempt -> attempt.getCompletedAt() != null)
-                    .orElse(false);
-                chapterItems.add(new ChapterItem("lesson", lesson.getId(), lesson.getTitle(), lesson.getCreatedAt(), completed, order++));
-            }
-        }
-        
-        if (chapter.getQuizzes() != null) {
-            int order = chapter.getLessons() != null ? chapter.getLessons().size() : 0;
-            for (Quiz quiz : chapter.getQuizzes()) {
-                boolean completed = quizAttemptRepository
-                    .findByUserIdAndQuizId(userId, quiz.getId())
-                    .map(attempt -> {
-                        if (attempt.getCompletedAt() == null) return false;
-                        return attempt.getScore() >= (quiz.getMaxScore() * 0.8);
-                    })
-                    .orElse(false);
-                chapterItems.add(new ChapterItem("quiz", quiz.getId(), quiz.getTitle(), quiz.getCreatedAt(), completed, order++));
-            }
-        }
-
-        // Sort all items by creation time
-        List<ChapterDetailResponse.ChapterItemDto> items = chapterItems.stream()
-                .sorted(Comparator.comparing(ChapterItem::getOrder))
-                .map(item -> ChapterDetailResponse.ChapterItemDto.builder()
-                        .id(item.getId())
-                        .type(item.getType())
-                        .title(item.getTitle())
-                        .order(item.getOrder() + 1)
-                        .completed(item.isCompleted())
-                        .build())
-                .collect(Collectors.toList());
-
-        int totalTasks = countTotalTasks(chapter);
-        int completedTasks = countCompletedTasks(chapter, userId);
-        double progressPercentage = totalTasks > 0 ? (completedTasks * 100.0) / totalTasks : 0;
-
-        ChapterDetailResponse response = ChapterDetailResponse.builder()
-                .id(chapter.getId())
-                .title(chapter.getTitle())
-                .description(chapter.getDescription())
-                .iconUrl(chapter.getIcon() != null ? "/api/v1/files/" + chapter.getIcon() : null)
-                .items(items)
-                .totalTasks(totalTasks)
-                .completedTasks(completedTasks)
-                .progressPercentage(progressPercentage)
-                .build();
-
-        response.setCompletedTasks(completedTasks);
-        response.setProgressPercentage(progressPercentage);
-        
-        // Set chapter status
-        response.setStatus(determineChapterStatus(chapter, userId, allChapters, completedTasks, totalTasks));
-
-        return ChapterListResponse.builder()
-                .id(chapter.getId())
-                .title(chapter.getTitle())
-                .icon(chapter.getIcon() != null ? "/api/v1/files/" + chapter.getIcon() : null)
-                .totalTasks(totalTasks)
-                .completedTasks(completedTasks)
-                .progressPercentage(progressPercentage)
-                .status(response.getStatus())
-                .build();
-    }
-
     private ChapterDetailResponse mapToDetailResponse(Chapter chapter, User currentUser, ChapterStatus status, int completedTasks, int totalTasks) {
         try {
             System.out.println("Starting mapToDetailResponse");
@@ -431,7 +397,7 @@ public class ChapterService {
             }
 
             System.out.println("Sorting items: " + chapterItems.size());
-            // Sort items by order
+            // Sort items by order; stored keys are sparse, so the exposed order is the 1-based position
             chapterItems.stream()
                     .sorted(Comparator.comparing(ChapterItem::getOrder))
                     .forEach(item -> {
@@ -440,7 +406,7 @@ public class ChapterService {
                                     .id(item.getId())
                                     .type(item.getType())
                                     .title(item.getTitle())
-                                    .order(item.getOrder() + 1)
+                                    .order(items.size() + 1)
                                     .completed(item.isCompleted())
                                     .build());
                             System.out.println("Added sorted item: " + item.getId());
@@ -459,6 +425,8 @@ public class ChapterService {
                     .title(chapter.getTitle())
                     .description(chapter.getDescription())
                     .iconUrl(chapter.getIcon() != null ? "/api/v1/files/" + chapter.getIcon() : null)
+                    .sequence(chapter.getSequence())
+                    .prerequisiteIds(chapterGraph.snapshot().getPrerequisites().getOrDefault(chapter.getId(), List.of()))
                     .items(items)
                     .hasCompletedFeedback(hasCompletedFeedback)
                     .status(status)
@@ -477,119 +445,6 @@ public class ChapterService {
         return mapToDetailResponse(chapter, currentUser, status, completedTasks, totalTasks);
     }
 
-    private ChapterStatus determineChapterStatus(Chapter chapter, Long userId, List<Chapter> allChapters, int completedTasks, int totalTasks) {
-        // Create a copy of the chapters list to avoid concurrent modification
-        List<Chapter> chapters = new ArrayList<>(allChapters);
-        
-        System.out.println("\n=== Determining status for Chapter " + chapter.getId() + " ===");
-        System.out.println("User: " + userId + ", Role: " + getCurrentUser().getRole());
-        System.out.println("Progress: " + completedTasks + "/" + totalTasks + " tasks completed");
-        
-        // Get the index of the current chapter in the sequence
-        int chapterIndex = chapters.indexOf(chapter);
-        System.out.println("Chapter index in sequence: " + chapterIndex);
-        
-        // For non-first chapters, check if they're locked
-        if (chapterIndex > 0) {
-            // Get the previous chapter
-            Chapter previousChapter = chapters.get(chapterIndex - 1);
-            
-            // Count completed tasks for previous chapter
-            int prevCompletedTasks = countCompletedTasks(previousChapter, userId);
-            int prevTotalTasks = countTotalTasks(previousChapter);
-            
-            System.out.println("Previous chapter " + previousChapter.getId() + " progress: " + prevCompletedTasks + "/" + prevTotalTasks);
-            
-            // Previous chapter must be completed to unlock this one
-            boolean previousChapterCompleted = prevCompletedTasks >= prevTotalTasks;
-            System.out.println("Previous chapter completed? " + previousChapterCompleted);
-            
-            if (!previousChapterCompleted) {
-                System.out.println("Previous chapter not completed - returning LOCKED");
-                return ChapterStatus.LOCKED;
-            }
-        }
-        
-        // At this point, the chapter is either the first one or unlocked
-        // Now determine if it's in progress or completed
-        if (completedTasks >= totalTasks) {
-            System.out.println("All tasks completed - returning COMPLETED");
-            return ChapterStatus.COMPLETED;
-        } else if (completedTasks > 0) {
-            System.out.println("Some tasks completed - returning IN_PROGRESS");
-            return ChapterStatus.IN_PROGRESS;
-        } else {
-            System.out.println("No tasks completed - returning AVAILABLE");
-            return ChapterStatus.AVAILABLE;
-        }
-    }
-    
-    private int countTotalTasks(Chapter chapter) {
-        int totalTasks = 0;
-        
-        if (chapter.getLessons() != null) {
-            totalTasks += chapter.getLessons().size();
-        }
-        
-        if (chapter.getQuizzes() != null) {
-            totalTasks += chapter.getQuizzes().size();
-        }
-        
-        System.out.println("Chapter " + chapter.getId() + " total tasks: " + totalTasks + 
-            " (lessons: " + (chapter.getLessons() != null ? chapter.getLessons().size() : 0) + 
-            ", quizzes: " + (chapter.getQuizzes() != null ? chapter.getQuizzes().size() : 0) + ")");
-            
-        return totalTasks;
-    }
-    
-    private int countCompletedTasks(Chapter chapter, Long userId) {
-        int completedLessons = 0;
-        int completedQuizzes = 0;
-        
-        System.out.println("\nCounting completed tasks for Chapter " + chapter.getId() + ":");
-        
-        if (chapter.getLessons() != null) {
-            for (var lesson : chapter.getLessons()) {
-                var attempt = lessonAttemptRepository.findByUserIdAndLessonId(userId, lesson.getId());
-                boolean completed = attempt.map(a -> a.getCompletedAt() != null).orElse(false);
-                System.out.println("  Lesson " + lesson.getId() + ": " + 
-                    (attempt.isPresent() ? 
-                        ("attempt found, completed: " + completed + ", completedAt: " + attempt.get().getCompletedAt()) 
-                        : "no attempt found"));
-                if (completed) completedLessons++;
-            }
-        }
-
-        if (chapter.getQuizzes() != null) {
-            for (var quiz : chapter.getQuizzes()) {
-                var attempt = quizAttemptRepository.findByUserIdAndQuizId(userId, quiz.getId());
-                String status = attempt.map(a -> {
-                    if (a.getCompletedAt() == null) return "incomplete";
-                    double score = a.getScore();
-                    double maxScore = quiz.getMaxScore();
-                    boolean passed = score >= (maxScore * 0.8);
-                    return String.format("score: %.1f/%.1f (%.1f%%) - %s", 
-                        score, maxScore, (score/maxScore)*100, 
-                        passed ? "PASSED" : "FAILED");
-                }).orElse("no attempt found");
-                
-                System.out.println("  Quiz " + quiz.getId() + ": " + status);
-                
-                if (attempt.map(a -> {
-                    if (a.getCompletedAt() == null) return false;
-                    return a.getScore() >= (quiz.getMaxScore() * 0.8);
-                }).orElse(false)) {
-                    completedQuizzes++;
-                }
-            }
-        }
-        
-        System.out.println("Chapter " + chapter.getId() + " completed tasks: " + (completedLessons + completedQuizzes) + 
-            " (lessons: " + completedLessons + ", quizzes: " + completedQuizzes + ")");
-            
-        return completedLessons + completedQuizzes;
-    }
-
     // Helper class to combine lessons and quizzes for sorting
     @Data
     @AllArgsConstructor
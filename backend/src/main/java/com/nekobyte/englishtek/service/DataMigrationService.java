@@ -3,9 +3,13 @@ package com.nekobyte.englishtek.service;
 import com.nekobyte.englishtek.model.Chapter;
 import com.nekobyte.englishtek.model.Lesson;
 import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.StringListConverter;
 import com.nekobyte.englishtek.repository.ChapterRepository;
 import com.nekobyte.englishtek.repository.QuizRepository;
+import com.nekobyte.englishtek.util.ContentCompression;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
@@ -13,14 +17,36 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DataMigrationService {
+    // Tables whose entities take ids from the pooled id_generators table, keyed by the same name
+    private static final List<String> POOLED_ID_TABLES = List.of(
+            "quizzes", "quiz_questions", "lessons", "quiz_attempts", "lesson_attempts", "user_badges", "quiz_attempt_history");
+    private static final int ID_ALLOCATION_SIZE = 50;
+
     private final ChapterRepository chapterRepository;
     private final QuizRepository quizRepository;
+    private final ChapterGraph chapterGraph;
+    private final QuizAttemptHistoryService quizAttemptHistoryService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Schema fixes that must land before anything writes: runs while the context starts, after Hibernate has
+    // updated the schema but before the web server or any ready listener can insert a row
+    @PostConstruct
+    public void prepareSchema() {
+        numberLessonPages();
+        compressLessonContent();
+        inlineQuestionChoices();
+        // Before the generators are seeded, since seeding history adds ids
+        quizAttemptHistoryService.preparePartitions();
+        seedIdGenerators();
+    }
 
     @EventListener(ApplicationReadyEvent.class)
     @Transactional
@@ -43,7 +69,7 @@ public class DataMigrationService {
                 List<Lesson> sortedLessons = new ArrayList<>(lessons);
                 sortedLessons.sort(Comparator.comparing(Lesson::getCreatedAt));
                 for (int i = 0; i < sortedLessons.size(); i++) {
-                    sortedLessons.get(i).setOrder(i + 1);
+                    sortedLessons.get(i).setOrder((i + 1) * ChapterItemOrdering.GAP);
                 }
                 needsUpdate = true;
             }
@@ -54,7 +80,7 @@ public class DataMigrationService {
                 List<Quiz> sortedQuizzes = new ArrayList<>(quizzes);
                 sortedQuizzes.sort(Comparator.comparing(Quiz::getCreatedAt));
                 for (int i = 0; i < sortedQuizzes.size(); i++) {
-                    sortedQuizzes.get(i).setOrder(i + 1);
+                    sortedQuizzes.get(i).setOrder((i + 1) * ChapterItemOrdering.GAP);
                 }
                 needsUpdate = true;
             }
@@ -76,6 +102,147 @@ public class DataMigrationService {
             }
         }
 
+        // Chapters created before explicit sequencing keep their old id order, after any sequenced ones
+        List<Chapter> unsequenced = chapters.stream()
+                .filter(chapter -> chapter.getSequence() == null)
+                .sorted(Comparator.comparing(Chapter::getId))
+                .collect(Collectors.toList());
+        if (!unsequenced.isEmpty()) {
+            System.out.println("Assigning sequence to " + unsequenced.size() + " chapters");
+            int next = chapters.stream()
+                    .map(Chapter::getSequence)
+                    .filter(sequence -> sequence != null)
+                    .max(Integer::compare)
+                    .orElse(0);
+            for (Chapter chapter : unsequenced) {
+                chapter.setSequence(++next);
+            }
+            chapterRepository.saveAll(unsequenced);
+            chapterGraph.invalidate();
+        }
+
         System.out.println("Data migration completed successfully.");
     }
+
+    // Hibernate creates id_generators empty and would start every table at 1 again; each row is moved past
+    // its table's highest id plus one allocation block, and never lowered
+    private void seedIdGenerators() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_generators (" +
+                "gen_name VARCHAR(64) NOT NULL PRIMARY KEY, gen_value BIGINT NOT NULL) ENGINE = InnoDB");
+        for (String table : POOLED_ID_TABLES) {
+            jdbcTemplate.update("INSERT INTO id_generators (gen_name, gen_value) " +
+                    "SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + table + " " +
+                    "ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value))",
+                    table, ID_ALLOCATION_SIZE + 1);
+        }
+    }
+
+    // Choices used to live in the quiz_question_choices child table. They are copied into the JSON column in
+    // stored order (the order Hibernate read them in), only into questions that have none yet, and the old
+    // table is then renamed aside, so an interrupted copy simply runs again on the next start.
+    private void inlineQuestionChoices() {
+        // Earlier versions renamed the old table aside, where its foreign key kept blocking question deletes
+        for (String table : List.of("quiz_question_choices", "quiz_question_choices_migrated")) {
+            if (tableExists(table)) {
+                inlineQuestionChoices(table);
+            }
+        }
+    }
+
+    private void inlineQuestionChoices(String table) {
+        Map<Long, List<String>> choices = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT question_id, choice FROM " + table, rs -> {
+            choices.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getString(2));
+        });
+        StringListConverter converter = new StringListConverter();
+        List<Object[]> updates = new ArrayList<>();
+        choices.forEach((questionId, list) -> updates.add(new Object[]{converter.convertToDatabaseColumn(list), questionId}));
+        jdbcTemplate.batchUpdate("UPDATE quiz_questions SET choices = ? " +
+                "WHERE id = ? AND (choices IS NULL OR JSON_LENGTH(choices) = 0)", updates);
+
+        Integer missing = jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT c.question_id) FROM " + table + " c " +
+                "JOIN quiz_questions q ON q.id = c.question_id " +
+                "WHERE q.choices IS NULL OR JSON_LENGTH(q.choices) = 0", Integer.class);
+        if (missing != null && missing > 0) {
+            throw new IllegalStateException(missing + " quiz questions are missing the choices in " + table);
+        }
+        jdbcTemplate.execute("DROP TABLE " + table);
+        System.out.println("Copied choices of " + choices.size() + " quiz questions into quiz_questions.choices");
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private boolean hasPrimaryKey(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'PRIMARY KEY'", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    // Pages stored before page_index existed have no key: Hibernate adds page_index as NOT NULL, so every one
+    // of them reads 0 and a lesson would load as its first page only. They are numbered per lesson in stored
+    // order, which is the order they were always loaded in, and the table then gets the (lesson_id, page_index)
+    // primary key a fresh schema has. Tables that already have it are left alone.
+    private void numberLessonPages() {
+        if (!tableExists("lesson_content") || hasPrimaryKey("lesson_content")) {
+            return;
+        }
+        if (!columnExists("lesson_content", "page_index")) {
+            jdbcTemplate.execute("ALTER TABLE lesson_content ADD COLUMN page_index INT NULL");
+        }
+        if (!columnExists("lesson_content", "legacy_row")) {
+            // Filled in clustered order, which for a table without a key is the order rows were inserted in
+            jdbcTemplate.execute("ALTER TABLE lesson_content ADD COLUMN legacy_row BIGINT NOT NULL AUTO_INCREMENT UNIQUE");
+        }
+        int numbered = jdbcTemplate.update("UPDATE lesson_content c JOIN (" +
+                "SELECT legacy_row, ROW_NUMBER() OVER (PARTITION BY lesson_id ORDER BY page_index, legacy_row) - 1 AS page " +
+                "FROM lesson_content) n ON n.legacy_row = c.legacy_row " +
+                "SET c.page_index = n.page");
+        jdbcTemplate.execute("ALTER TABLE lesson_content DROP COLUMN legacy_row, MODIFY page_index INT NOT NULL, " +
+                "ADD PRIMARY KEY (lesson_id, page_index)");
+        System.out.println("Numbered " + numbered + " lesson pages");
+    }
+
+    // Moves pages still in the legacy LONGTEXT column into the compressed column, a batch at a time. Rows are
+    // updated by their primary key, so a page can only ever be overwritten with its own text.
+    private void compressLessonContent() {
+        if (!tableExists("lesson_content") || !columnExists("lesson_content", "content")) {
+            return;
+        }
+        if (!hasPrimaryKey("lesson_content")) {
+            throw new IllegalStateException("lesson_content has no primary key; its pages cannot be compressed safely");
+        }
+
+        int compressed = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT lesson_id, page_index, content FROM lesson_content " +
+                    "WHERE content_gz IS NULL AND content IS NOT NULL LIMIT 200");
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>();
+            for (Map<String, Object> row : rows) {
+                updates.add(new Object[]{
+                        ContentCompression.compress((String) row.get("content")),
+                        row.get("lesson_id"),
+                        row.get("page_index")});
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE lesson_content SET content_gz = ?, content = NULL WHERE lesson_id = ? AND page_index = ?", updates);
+            compressed += rows.size();
+        }
+        if (compressed > 0) {
+            System.out.println("Compressed " + compressed + " lesson pages");
+        }
+    }
 }
@@ -1,25 +1,33 @@
 package com.nekobyte.englishtek.service;
 
+import com.nekobyte.englishtek.dto.feedback.FeedbackPageResponse;
 import com.nekobyte.englishtek.dto.feedback.FeedbackRequest;
 import com.nekobyte.englishtek.dto.feedback.FeedbackResponse;
+import com.nekobyte.englishtek.dto.feedback.FeedbackStatsResponse;
 import com.nekobyte.englishtek.model.Chapter;
 import com.nekobyte.englishtek.model.Feedback;
 import com.nekobyte.englishtek.model.User;
 import com.nekobyte.englishtek.repository.ChapterRepository;
 import com.nekobyte.englishtek.repository.FeedbackRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FeedbackService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final FeedbackRepository feedbackRepository;
     private final ChapterRepository chapterRepository;
     private final UserService userService;
+    private final FeedbackStatsService feedbackStatsService;
 
     @Transactional
     public FeedbackResponse submitFeedback(FeedbackRequest request) {
@@ -40,6 +48,7 @@ public class FeedbackService {
         feedback.setFeedbackText(request.getFeedbackText());
         feedback.setFeedbackKeyword(request.getFeedbackKeyword());
 
+        feedbackStatsService.added(chapter.getId(), feedback.getRating(), feedback.getFeedbackKeyword());
         feedback = feedbackRepository.save(feedback);
         return mapToResponse(feedback);
     }
@@ -55,6 +64,10 @@ public class FeedbackService {
             throw new IllegalStateException("You can only update your own feedback");
         }
 
+        Long oldChapterId = feedback.getChapter().getId();
+        int oldRating = feedback.getRating();
+        String oldKeyword = feedback.getFeedbackKeyword();
+
         // If chapter ID is being changed, verify the new chapter exists
         if (!feedback.getChapter().getId().equals(request.getChapterId())) {
             Chapter newChapter = chapterRepository.findById(request.getChapterId())
@@ -66,6 +79,9 @@ public class FeedbackService {
         feedback.setFeedbackText(request.getFeedbackText());
         feedback.setFeedbackKeyword(request.getFeedbackKeyword());
 
+        // Before saving, so a first-time count of the chapter still sees the old values
+        feedbackStatsService.changed(oldChapterId, oldRating, oldKeyword,
+                feedback.getChapter().getId(), feedback.getRating(), feedback.getFeedbackKeyword());
         feedback = feedbackRepository.save(feedback);
         return mapToResponse(feedback);
     }
@@ -89,9 +105,39 @@ public class FeedbackService {
             throw new IllegalArgumentException("Chapter not found");
         }
 
-        return feedbackRepository.findByChapterId(chapterId).stream()
-                .map(this::mapToResponse)
+        return feedbackRepository.findRowsByChapterId(chapterId, Pageable.unpaged()).stream()
+                .map(this::mapRowToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Newest first; the total comes from the chapter's running totals instead of a count query
+    @Transactional
+    public FeedbackPageResponse getFeedbackPage(Long chapterId, int page, int size) {
+        if (!chapterRepository.existsById(chapterId)) {
+            throw new IllegalArgumentException("Chapter not found");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        List<FeedbackResponse> feedbacks = feedbackRepository.findRowsByChapterId(chapterId, PageRequest.of(page, pageSize)).stream()
+                .map(this::mapRowToResponse)
                 .collect(Collectors.toList());
+
+        return FeedbackPageResponse.builder()
+                .feedbacks(feedbacks)
+                .page(page)
+                .size(pageSize)
+                .total(feedbackStatsService.getStats(chapterId).getFeedbackCount())
+                .build();
+    }
+
+    public FeedbackStatsResponse getFeedbackStats(Long chapterId) {
+        if (!chapterRepository.existsById(chapterId)) {
+            throw new IllegalArgumentException("Chapter not found");
+        }
+        return feedbackStatsService.getStatsResponse(chapterId);
     }
 
     @Transactional
@@ -105,6 +151,7 @@ public class FeedbackService {
             throw new IllegalStateException("You can only delete your own feedback");
         }
 
+        feedbackStatsService.removed(feedback.getChapter().getId(), feedback.getRating(), feedback.getFeedbackKeyword());
         feedbackRepository.delete(feedback);
     }
 
@@ -122,4 +169,20 @@ public class FeedbackService {
                 .updatedAt(feedback.getUpdatedAt())
                 .build();
     }
+
+    // Columns of FeedbackRepository.findRowsByChapterId
+    private FeedbackResponse mapRowToResponse(Object[] row) {
+        return FeedbackResponse.builder()
+                .id((Long) row[0])
+                .userId((Long) row[1])
+                .username((String) row[2])
+                .chapterId((Long) row[3])
+                .chapterTitle((String) row[4])
+                .rating((Integer) row[5])
+                .feedbackText((String) row[6])
+                .feedbackKeyword((String) row[7])
+                .createdAt((LocalDateTime) row[8])
+                .updatedAt((LocalDateTime) row[9])
+                .build();
+    }
 }
@@ -0,0 +1,156 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.feedback.FeedbackStatsResponse;
+import com.nekobyte.englishtek.model.FeedbackStats;
+import com.nekobyte.englishtek.model.LongMapConverter;
+import com.nekobyte.englishtek.repository.FeedbackStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Per-chapter feedback totals: count, rating sum, rating histogram and keyword frequencies. Each write
+ * adjusts the chapter's row under a row lock in the same transaction as the feedback itself, so the totals
+ * commit or roll back with it. A chapter without a row yet (feedback from before the totals existed) is
+ * counted once from the feedbacks table on first use.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedbackStatsService {
+    private static final int TOP_KEYWORDS = 10;
+    private static final LongMapConverter MAP_CONVERTER = new LongMapConverter();
+
+    private final FeedbackStatsRepository feedbackStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // The adjust methods run before the feedback row itself is written, so a first-time count does not include it yet
+    public void added(Long chapterId, int rating, String keyword) {
+        adjust(chapterId, rating, keyword, 1);
+    }
+
+    public void removed(Long chapterId, int rating, String keyword) {
+        adjust(chapterId, rating, keyword, -1);
+    }
+
+    public void changed(Long oldChapterId, int oldRating, String oldKeyword, Long newChapterId, int newRating, String newKeyword) {
+        // Rows are locked in chapter order so two feedbacks moving in opposite directions cannot deadlock
+        if (oldChapterId <= newChapterId) {
+            removed(oldChapterId, oldRating, oldKeyword);
+            added(newChapterId, newRating, newKeyword);
+        } else {
+            added(newChapterId, newRating, newKeyword);
+            removed(oldChapterId, oldRating, oldKeyword);
+        }
+    }
+
+    public void deleteChapter(Long chapterId) {
+        feedbackStatsRepository.deleteByChapterId(chapterId);
+    }
+
+    @Transactional
+    public FeedbackStats getStats(Long chapterId) {
+        return feedbackStatsRepository.findById(chapterId).orElseGet(() -> {
+            rebuild(chapterId);
+            return feedbackStatsRepository.findById(chapterId)
+                    .orElseThrow(() -> new IllegalStateException("Feedback totals missing for chapter " + chapterId));
+        });
+    }
+
+    @Transactional
+    public FeedbackStatsResponse getStatsResponse(Long chapterId) {
+        FeedbackStats stats = getStats(chapterId);
+
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int rating = 1; rating <= 5; rating++) {
+            histogram.put(rating, stats.getRatingCounts().getOrDefault(String.valueOf(rating), 0L));
+        }
+        List<FeedbackStatsResponse.KeywordCount> topKeywords = stats.getKeywordCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_KEYWORDS)
+                .map(entry -> FeedbackStatsResponse.KeywordCount.builder()
+                        .keyword(entry.getKey())
+                        .count(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+
+        return FeedbackStatsResponse.builder()
+                .chapterId(chapterId)
+                .feedbackCount(stats.getFeedbackCount())
+                .averageRating(stats.getFeedbackCount() > 0 ? (double) stats.getRatingSum() / stats.getFeedbackCount() : null)
+                .ratingHistogram(histogram)
+                .topKeywords(topKeywords)
+                .build();
+    }
+
+    private void adjust(Long chapterId, int rating, String keyword, int delta) {
+        // Create a missing row before locking it; locking a row that does not exist takes a gap lock,
+        // which deadlocks with the insert of a concurrent first write
+        if (!feedbackStatsRepository.existsById(chapterId)) {
+            rebuild(chapterId);
+        }
+        FeedbackStats stats = feedbackStatsRepository.findForUpdate(chapterId)
+                .orElseThrow(() -> new IllegalStateException("Feedback totals missing for chapter " + chapterId));
+
+        stats.setFeedbackCount(stats.getFeedbackCount() + delta);
+        stats.setRatingSum(stats.getRatingSum() + (long) rating * delta);
+        // Copies so Hibernate sees a new value for the converted columns
+        stats.setRatingCounts(bump(stats.getRatingCounts(), String.valueOf(rating), delta));
+        String key = normalizeKeyword(keyword);
+        if (key != null) {
+            stats.setKeywordCounts(bump(stats.getKeywordCounts(), key, delta));
+        }
+        feedbackStatsRepository.save(stats);
+    }
+
+    // Counts a chapter's existing feedback once; plain JDBC, so pending entity changes are not flushed into it
+    private void rebuild(Long chapterId) {
+        long[] totals = new long[2];
+        Map<String, Long> ratingCounts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT rating, COUNT(*) FROM feedbacks WHERE chapter_id = ? GROUP BY rating ORDER BY rating", rs -> {
+            int rating = rs.getInt(1);
+            long count = rs.getLong(2);
+            ratingCounts.put(String.valueOf(rating), count);
+            totals[0] += count;
+            totals[1] += rating * count;
+        }, chapterId);
+
+        Map<String, Long> keywordCounts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT feedback_keyword, COUNT(*) FROM feedbacks WHERE chapter_id = ? AND feedback_keyword IS NOT NULL " +
+                "GROUP BY feedback_keyword", rs -> {
+            String key = normalizeKeyword(rs.getString(1));
+            if (key != null) {
+                keywordCounts.merge(key, rs.getLong(2), Long::sum);
+            }
+        }, chapterId);
+
+        feedbackStatsRepository.insertIfAbsent(chapterId, totals[0], totals[1],
+                MAP_CONVERTER.convertToDatabaseColumn(ratingCounts), MAP_CONVERTER.convertToDatabaseColumn(keywordCounts));
+    }
+
+    private static Map<String, Long> bump(Map<String, Long> counts, String key, int delta) {
+        Map<String, Long> copy = new LinkedHashMap<>(counts);
+        long count = copy.getOrDefault(key, 0L) + delta;
+        if (count > 0) {
+            copy.put(key, count);
+        } else {
+            copy.remove(key);
+        }
+        return copy;
+    }
+
+    // Keywords are free text, so "Grammar" and " grammar" count as one
+    private static String normalizeKeyword(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,190 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.storage.FileStore;
+import com.nekobyte.englishtek.util.ContentCompression;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deletes stored files that nothing points at any more: avatars replaced by a newer upload, files of
+ * rolled-back transactions and the like. The referenced names (user avatars, badge and chapter icons, and
+ * file links inside lesson pages) are loaded into a sorted array of 64-bit hashes, then the store's
+ * listing is streamed and each file older than the grace period is checked against it. Variants follow
+ * their original. Deletes are paced so a large backlog does not hammer the disk or the bucket.
+ */
+@Service
+@RequiredArgsConstructor
+public class FileCollectorService {
+    private static final String FILE_PREFIX = "/api/v1/files/";
+    private static final Pattern FILE_LINK = Pattern.compile(Pattern.quote(FILE_PREFIX) + "([^\"'\\s<>()?#]+)");
+    private static final String REFERENCE_QUERY =
+            "SELECT avatar FROM users WHERE avatar IS NOT NULL " +
+            "UNION ALL SELECT icon_url FROM badges WHERE icon_url IS NOT NULL " +
+            "UNION ALL SELECT icon FROM chapters WHERE icon IS NOT NULL";
+    private static final String RECHECK_QUERY =
+            "SELECT EXISTS(SELECT 1 FROM users WHERE avatar LIKE ?) " +
+            "OR EXISTS(SELECT 1 FROM badges WHERE icon_url LIKE ?) " +
+            "OR EXISTS(SELECT 1 FROM chapters WHERE icon LIKE ?)";
+
+    private final FileStore fileStore;
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${file.gc.enabled:true}")
+    private boolean enabled;
+
+    // Files younger than this are never collected, so an upload whose row has not been saved yet survives
+    @Value("${file.gc.grace-period-hours:168}")
+    private long gracePeriodHours;
+
+    @Value("${file.gc.deletes-per-second:20}")
+    private int deletesPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${file.gc.cron:0 0 4 * * *}")
+    public void collect() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            ReferenceSet references = loadReferences();
+            Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+            long pause = TimeUnit.SECONDS.toNanos(1) / Math.max(1, deletesPerSecond);
+            Report report = new Report();
+
+            fileStore.list(stat -> {
+                report.scanned++;
+                String key = stat.getKey();
+                if (key.startsWith(".") || references.contains(baseName(key))) {
+                    return;
+                }
+                if (stat.getLastModified().isAfter(cutoff)) {
+                    report.recent++;
+                    return;
+                }
+                report.pace(pause);
+                if (fileStorageService.removeOrphan(key, this::isReferenced)) {
+                    report.deleted++;
+                    report.reclaimedBytes += stat.getSize();
+                }
+            });
+
+            System.out.println("File collector scanned " + report.scanned + " files against " + references.size
+                    + " references, deleted " + report.deleted + " orphans and reclaimed " + report.reclaimedBytes
+                    + " bytes in " + (System.currentTimeMillis() - start) + " ms; " + report.recent
+                    + " unreferenced files are still within the grace period");
+        } catch (Exception e) {
+            System.err.println("File collection failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReferenceSet loadReferences() {
+        ReferenceSet references = new ReferenceSet();
+        jdbcTemplate.query(REFERENCE_QUERY, rs -> {
+            references.add(baseName(rs.getString(1)));
+        });
+        // Images uploaded on their own are linked from lesson pages by URL
+        jdbcTemplate.query("SELECT content_gz FROM lesson_content WHERE content_gz IS NOT NULL", rs -> {
+            Matcher matcher = FILE_LINK.matcher(ContentCompression.decompress(rs.getBytes(1)));
+            while (matcher.find()) {
+                references.add(baseName(matcher.group(1)));
+            }
+        });
+        references.seal();
+        return references;
+    }
+
+    // Exact check against the database right before deleting, for references saved after the set was loaded
+    private boolean isReferenced(String key) {
+        String pattern = "%" + baseName(key) + "%";
+        Boolean referenced = jdbcTemplate.queryForObject(RECHECK_QUERY, Boolean.class, pattern, pattern, pattern);
+        return !Boolean.FALSE.equals(referenced);
+    }
+
+    // Stored name without directories, size suffix or extension, so a variant maps to its original
+    private static String baseName(String reference) {
+        String name = reference.trim();
+        int query = name.indexOf('?');
+        if (query >= 0) {
+            name = name.substring(0, query);
+        }
+        name = name.substring(name.lastIndexOf('/') + 1);
+        int at = name.indexOf('@');
+        int dot = name.lastIndexOf('.');
+        if (at > 0) {
+            return name.substring(0, at);
+        }
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    // 64-bit FNV-1a; names are hashes or UUIDs already, so this only has to be cheap and well spread
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Sorted hashes instead of strings; a collision can only keep an orphan, never delete a referenced file
+    private static class ReferenceSet {
+        private long[] hashes = new long[1024];
+        private int size;
+
+        void add(String name) {
+            if (name.isEmpty()) {
+                return;
+            }
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            hashes[size++] = hash(name);
+        }
+
+        void seal() {
+            Arrays.sort(hashes, 0, size);
+        }
+
+        boolean contains(String name) {
+            return Arrays.binarySearch(hashes, 0, size, hash(name)) >= 0;
+        }
+    }
+
+    private static class Report {
+        private long scanned;
+        private long recent;
+        private long deleted;
+        private long reclaimedBytes;
+        private long nextDeleteAt = System.nanoTime();
+
+        // Spaces deletes evenly rather than in bursts
+        void pace(long pause) {
+            long wait = nextDeleteAt - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("File collection interrupted");
+                }
+            }
+            nextDeleteAt = System.nanoTime() + pause;
+        }
+    }
+}
@@ -1,30 +1,71 @@
 package com.nekobyte.englishtek.service;
 
 import com.nekobyte.englishtek.config.FileStorageConfig;
+import com.nekobyte.englishtek.repository.StoredFileRepository;
+import com.nekobyte.englishtek.storage.FileStore;
+import com.nekobyte.englishtek.storage.LegacyFallbackFileStore;
+import com.nekobyte.englishtek.util.FileSignature;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 @Service
 public class FileStorageService {
+    private static final int LOCK_STRIPES = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Local staging area for uploads in flight; where files end up is the file store's business
     private final Path fileStorageLocation;
+    private final LegacyFallbackFileStore fileStore;
+    private final ImageVariantService imageVariantService;
+    private final StoredFileRepository storedFileRepository;
+
+    // Serializes storing and removing the same content hash within this instance
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    // Hashes acquired by transactions that have not finished; a concurrent last delete must leave the file alone
+    private final ConcurrentHashMap<String, Integer> pendingUploads = new ConcurrentHashMap<>();
+
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    // Only applies to durable stores; with file.storage.type=memory legacy files always stay on disk
+    @Value("${file.storage.migrate-legacy:true}")
+    private boolean migrateLegacy;
 
     @Autowired
-    public FileStorageService(FileStorageConfig fileStorageConfig) {
+    public FileStorageService(FileStorageConfig fileStorageConfig, LegacyFallbackFileStore fileStore,
+                              ImageVariantService imageVariantService, StoredFileRepository storedFileRepository) {
         this.fileStorageLocation = Paths.get(fileStorageConfig.getUploadDir())
                 .toAbsolutePath().normalize();
+        this.fileStore = fileStore;
+        this.imageVariantService = imageVariantService;
+        this.storedFileRepository = storedFileRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
     }
 
     @PostConstruct
@@ -37,45 +78,235 @@ public class FileStorageService {
     }
 
     public String storeFile(MultipartFile file) {
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        String fileExtension = "";
-        
+        String originalFileName = file.getOriginalFilename() != null ? StringUtils.cleanPath(file.getOriginalFilename()) : "";
+        try (InputStream input = file.getInputStream()) {
+            return storeStream(input, originalFileName);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Streams an upload once into the upload directory, hashing and counting it on the way, and stores it
+     * under the SHA-256 of its content. Identical content is kept once and gets the same name (and so the
+     * same URL); each call adds a reference. The type comes from the content's signature, not the name.
+     */
+    public String storeStream(InputStream body, String originalFileName) {
+        Path temp = null;
+
         try {
-            if (originalFileName.contains(".")) {
-                fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+            BufferedInputStream input = new BufferedInputStream(body, BUFFER_SIZE);
+            input.mark(FileSignature.HEADER_LENGTH);
+            byte[] header = input.readNBytes(FileSignature.HEADER_LENGTH);
+            input.reset();
+            String extension = resolveExtension(originalFileName, header);
+
+            // On the same disk as the local store, so storing it there is a rename rather than a second copy
+            temp = Files.createTempFile(this.fileStorageLocation, ".upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxFileSize.toBytes()) {
+                        throw new IllegalArgumentException("File exceeds the maximum size of " + maxFileSize.toMegabytes() + " MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    output.write(buffer, 0, read);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("File is empty");
+            }
+
+            String fileName = HexFormat.of().formatHex(digest.digest()) + extension;
+            synchronized (lockFor(fileName)) {
+                if (fileStore.stat(fileName) == null) {
+                    fileStore.store(fileName, temp);
+                }
+                storedFileRepository.acquire(fileName, size);
+                markPending(fileName);
             }
-            
-            String fileName = UUID.randomUUID().toString() + fileExtension;
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            imageVariantService.scheduleVariants(fileName);
 
             return fileName;
-        } catch (IOException ex) {
+        } catch (IOException | NoSuchAlgorithmException ex) {
             throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        } finally {
+            // Left behind only when the upload failed or the content was already stored
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ex) {
+                    System.err.println("Could not remove temp upload " + temp + ": " + ex.getMessage());
+                }
+            }
         }
     }
 
-    public Resource loadFileAsResource(String fileName) {
+    public FileStore.FileStat stat(String fileName) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists()) {
-                return resource;
-            } else {
+            FileStore.FileStat stat = fileStore.stat(fileName);
+            if (stat == null) {
                 throw new RuntimeException("File not found " + fileName);
             }
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException("File not found " + fileName, ex);
+            return stat;
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read file " + fileName, ex);
         }
     }
 
+    public InputStream open(String fileName) throws IOException {
+        return fileStore.open(fileName);
+    }
+
+    // Local path for zero-copy transfer, or null when the store is not disk-backed
+    public Path localPath(String fileName) throws IOException {
+        return fileStore.localPath(fileName);
+    }
+
+    // Drops one reference; the file and its variants are removed once the last reference is gone and committed
     public void deleteFile(String fileName) {
+        FileStore.checkKey(fileName);
+
+        if (storedFileRepository.release(fileName) > 0 && storedFileRepository.deleteIfUnreferenced(fileName) == 0) {
+            return;
+        }
+        // Last reference, or a UUID-named file from before content addressing (no row)
+        afterCommit(() -> removeFromStore(fileName));
+    }
+
+    private void removeFromStore(String fileName) {
+        synchronized (lockFor(fileName)) {
+            // Uploaded again meanwhile
+            if (pendingUploads.containsKey(fileName) || storedFileRepository.existsById(fileName)) {
+                return;
+            }
+            try {
+                fileStore.delete(fileName);
+                imageVariantService.deleteVariants(fileName);
+            } catch (IOException ex) {
+                System.err.println("Could not delete file " + fileName + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes a file found to be unreferenced, along with its variants and its reference-count row. Skipped when
+     * the same content is being uploaded again or the caller's final check finds a reference after all.
+     */
+    public boolean removeOrphan(String fileName, Predicate<String> referenced) {
+        synchronized (lockFor(fileName)) {
+            if (pendingUploads.containsKey(fileName) || referenced.test(fileName)) {
+                return false;
+            }
+            try {
+                boolean deleted = fileStore.delete(fileName);
+                imageVariantService.deleteVariants(fileName);
+                storedFileRepository.forget(fileName);
+                return deleted;
+            } catch (IOException ex) {
+                System.err.println("Could not delete orphaned file " + fileName + ": " + ex.getMessage());
+                return false;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLegacyMigration() {
+        // The flat files are the only copy; moving them into the in-memory store would lose them on restart
+        if (migrateLegacy && !fileStore.isDurable()) {
+            System.out.println("File store is not durable; leaving files in the upload directory where they are");
+            return;
+        }
+        if (migrateLegacy) {
+            Thread thread = new Thread(this::migrateLegacyFiles, "file-migration");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // Moves files from the old flat upload directory into the configured store, one at a time in the background
+    public void migrateLegacyFiles() {
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
+            List<String> keys = fileStore.legacyKeys();
+            if (keys.isEmpty()) {
+                return;
+            }
+            System.out.println("Migrating " + keys.size() + " files into the file store");
+            int migrated = 0;
+            for (String key : keys) {
+                try {
+                    synchronized (lockFor(key)) {
+                        if (fileStore.migrate(key)) {
+                            migrated++;
+                        }
+                    }
+                } catch (IOException | IllegalArgumentException ex) {
+                    System.err.println("Could not migrate file " + key + ": " + ex.getMessage());
+                }
+                if (migrated > 0 && migrated % 1000 == 0) {
+                    System.out.println("Migrated " + migrated + " of " + keys.size() + " files");
+                }
+            }
+            System.out.println("Migrated " + migrated + " files into the file store");
         } catch (IOException ex) {
-            throw new RuntimeException("Could not delete file " + fileName, ex);
+            System.err.println("File migration failed: " + ex.getMessage());
+        }
+    }
+
+    private void markPending(String fileName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        pendingUploads.merge(fileName, 1, Integer::sum);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                pendingUploads.computeIfPresent(fileName, (name, count) -> count > 1 ? count - 1 : null);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private Object lockFor(String fileName) {
+        return locks[Math.floorMod(fileName.hashCode(), LOCK_STRIPES)];
+    }
+
+    // Recognized content is stored under its real type; a name claiming a recognized type must match it
+    private static String resolveExtension(String originalFileName, byte[] header) {
+        String claimed = extension(originalFileName);
+        String detected = FileSignature.detectExtension(header);
+        if (detected != null) {
+            return detected;
+        }
+        if (FileSignature.requiresSignature(claimed)) {
+            throw new IllegalArgumentException("File content does not match its " + claimed + " extension");
+        }
+        return claimed;
+    }
+
+    // Lower-cased and limited to plain alphanumerics so the stored name stays safe to serve
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
         }
+        String extension = fileName.substring(dot).toLowerCase(Locale.ROOT);
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
     }
 }
@@ -0,0 +1,263 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.config.FileStorageConfig;
+import com.nekobyte.englishtek.storage.FileStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downscaled copies of uploaded images, kept in the file store next to the original as {@code <name>@<size>.<ext>}.
+ * All sizes are generated in one pass after upload, or on the first request for a variant that does not
+ * exist yet. Generation runs on a small bounded pool; when it is saturated or a variant cannot be made
+ * the original is served instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+    public static final List<Integer> SIZES = List.of(64, 128, 512);
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "bmp");
+
+    private final FileStorageConfig fileStorageConfig;
+    private final FileStore fileStore;
+
+    @Value("${file.variants.threads:2}")
+    private int threads;
+
+    @Value("${file.variants.queue-capacity:100}")
+    private int queueCapacity;
+
+    // How long a request waits for a lazily generated variant before falling back to the original
+    @Value("${file.variants.wait-ms:5000}")
+    private long waitMs;
+
+    // Local scratch directory for encoding variants before they go into the store
+    private Path staging;
+    private ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    // Files that could not be decoded; not retried until restart
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        staging = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "image-variants-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Called after an upload; a full queue just leaves the variants to be made on first request
+    public void scheduleVariants(String fileName) {
+        if (!isImage(fileName)) {
+            return;
+        }
+        try {
+            generate(fileName);
+        } catch (RejectedExecutionException e) {
+            System.err.println("Image variant queue is full; " + fileName + " will be resized on first request");
+        }
+    }
+
+    // Name of the variant to serve, or the original's name when there is none
+    public String getVariant(String fileName, int size) throws IOException {
+        if (!SIZES.contains(size)) {
+            throw new IllegalArgumentException("Unsupported image size " + size + "; supported sizes are " + SIZES);
+        }
+        if (fileStore.stat(FileStore.checkKey(fileName)) == null) {
+            throw new RuntimeException("File not found " + fileName);
+        }
+        if (!isImage(fileName) || failed.contains(fileName)) {
+            return fileName;
+        }
+
+        String variant = variantName(fileName, size);
+        if (fileStore.stat(variant) != null) {
+            return variant;
+        }
+        try {
+            generate(fileName).get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException | TimeoutException | ExecutionException e) {
+            // Saturated, slow or undecodable: the original still renders, just larger
+        }
+        return fileStore.stat(variant) != null ? variant : fileName;
+    }
+
+    public void deleteVariants(String fileName) {
+        if (!isImage(fileName)) {
+            return;
+        }
+        for (int size : SIZES) {
+            try {
+                fileStore.delete(variantName(fileName, size));
+            } catch (IOException e) {
+                System.err.println("Could not delete variant of " + fileName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // One task per original generates every size, and concurrent callers share it
+    private CompletableFuture<Void> generate(String fileName) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(fileName, future);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeVariants(fileName);
+                    future.complete(null);
+                } catch (Exception e) {
+                    failed.add(fileName);
+                    System.err.println("Could not create image variants for " + fileName + ": " + e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(fileName, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(fileName, future);
+            throw e;
+        }
+        return future;
+    }
+
+    private void writeVariants(String fileName) throws IOException {
+        BufferedImage source = read(fileName, SIZES.get(SIZES.size() - 1));
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+        boolean jpeg = isJpeg(fileName);
+
+        for (int size : SIZES) {
+            String target = variantName(fileName, size);
+            if (fileStore.stat(target) != null) {
+                continue;
+            }
+            BufferedImage scaled = scale(source, size, !jpeg);
+            // Written aside and stored whole so a request never sees a half-written variant
+            Path temp = Files.createTempFile(staging, ".variant-", ".tmp");
+            try {
+                if (!ImageIO.write(scaled, jpeg ? "jpg" : "png", temp.toFile())) {
+                    throw new IOException("No image writer available");
+                }
+                fileStore.store(target, temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Decodes with subsampling so a large photo is never fully expanded just to be shrunk to a few hundred pixels
+    private BufferedImage read(String fileName, int largestSize) throws IOException {
+        try (InputStream stream = fileStore.open(fileName);
+             ImageInputStream input = new MemoryCacheImageInputStream(stream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the largest variant so the final downscale still has detail to work with
+                int step = Math.max(1, longest / (2 * largestSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the image within size x size without upscaling, halving in steps so bilinear filtering stays smooth
+    private BufferedImage scale(BufferedImage source, int size, boolean alpha) {
+        double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            if (!alpha) {
+                // JPEG has no alpha channel; flatten transparent areas onto white
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // JPEG stays JPEG; everything else becomes PNG so transparency survives
+    private static String variantName(String fileName, int size) {
+        int dot = fileName.lastIndexOf('.');
+        String base = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return base + "@" + size + (isJpeg(fileName) ? ".jpg" : ".png");
+    }
+
+    // Variants themselves are never resized again
+    private static boolean isImage(String fileName) {
+        return !fileName.contains("@") && IMAGE_EXTENSIONS.contains(extension(fileName));
+    }
+
+    private static boolean isJpeg(String fileName) {
+        String extension = extension(fileName);
+        return extension.equals("jpg") || extension.equals("jpeg");
+    }
+
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+}
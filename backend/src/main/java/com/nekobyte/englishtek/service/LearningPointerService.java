@@ -0,0 +1,93 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.chapter.ResumeResponse;
+import com.nekobyte.englishtek.model.LearningPointer;
+import com.nekobyte.englishtek.repository.LearningPointerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Per-user "continue learning" pointer: the first incomplete item of the first unlocked, unfinished
+ * chapter in prerequisite order. Completing the pointed item advances it; completing any other item
+ * cannot change it. Pointers stamped with an older catalog version are recomputed when next read.
+ */
+@Service
+@RequiredArgsConstructor
+public class LearningPointerService {
+    private final LearningPointerRepository learningPointerRepository;
+    private final ChapterGraph chapterGraph;
+    private final UserService userService;
+
+    public ResumeResponse getResume() {
+        Long userId = userService.getCurrentUser().getId();
+        LearningPointer pointer = learningPointerRepository.findById(userId)
+                .filter(current -> current.getCatalogVersion() == chapterGraph.version())
+                .orElseGet(() -> recompute(userId));
+        return mapToResponse(pointer);
+    }
+
+    // Called in the transaction that completed the item, after the completion has been saved
+    public void itemCompleted(Long userId, String itemType, Long itemId) {
+        learningPointerRepository.findById(userId)
+                .filter(pointer -> pointer.getCatalogVersion() == chapterGraph.version())
+                .filter(pointer -> itemType.equals(pointer.getItemType()) && itemId.equals(pointer.getItemId()))
+                .ifPresent(pointer -> recompute(userId));
+    }
+
+    // A completed item became incomplete again (e.g. a quiz retake); recompute on next read
+    public void reset(Long userId) {
+        learningPointerRepository.deleteByUserId(userId);
+    }
+
+    // Completion changed for many users at once (a re-grade)
+    public void resetAll() {
+        learningPointerRepository.deleteAllInBatch();
+    }
+
+    private LearningPointer recompute(Long userId) {
+        ChapterGraph.Snapshot graph = chapterGraph.snapshot();
+        Map<Long, ChapterGraph.ChapterProgress> progress = chapterGraph.evaluate(graph, userId);
+
+        LearningPointer pointer = new LearningPointer();
+        pointer.setUserId(userId);
+        pointer.setCatalogVersion(graph.getVersion());
+        pointer.setUpdatedAt(LocalDateTime.now());
+        for (Long chapterId : graph.getTopologicalOrder()) {
+            ChapterGraph.ChapterProgress chapterProgress = progress.get(chapterId);
+            if (!chapterProgress.isUnlocked() || chapterProgress.isCompleted()) {
+                continue;
+            }
+            ChapterGraph.Item next = graph.getItems().get(chapterId).stream()
+                    .filter(item -> !chapterProgress.getCompletedItems().contains(item))
+                    .findFirst()
+                    .orElse(null);
+            if (next != null) {
+                pointer.setChapterId(chapterId);
+                pointer.setChapterTitle(graph.getTitles().get(chapterId));
+                pointer.setItemType(next.getType());
+                pointer.setItemId(next.getId());
+                pointer.setItemTitle(next.getTitle());
+                break;
+            }
+        }
+
+        learningPointerRepository.upsert(pointer.getUserId(), pointer.getChapterId(), pointer.getChapterTitle(),
+                pointer.getItemType(), pointer.getItemId(), pointer.getItemTitle(), pointer.getCatalogVersion(),
+                pointer.getUpdatedAt());
+        return pointer;
+    }
+
+    private ResumeResponse mapToResponse(LearningPointer pointer) {
+        return ResumeResponse.builder()
+                .chapterId(pointer.getChapterId())
+                .chapterTitle(pointer.getChapterTitle())
+                .itemType(pointer.getItemType())
+                .itemId(pointer.getItemId())
+                .itemTitle(pointer.getItemTitle())
+                .finished(pointer.getItemId() == null)
+                .build();
+    }
+}
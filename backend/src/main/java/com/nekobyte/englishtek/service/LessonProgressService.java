@@ -0,0 +1,163 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.model.LessonProgress;
+import com.nekobyte.englishtek.repository.LessonProgressRepository;
+import com.nekobyte.englishtek.repository.LessonRepository;
+import com.nekobyte.englishtek.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lesson page positions reported by reading heartbeats. A heartbeat only replaces the pending position
+ * for its (user, lesson) in memory, so any number of heartbeats between flushes collapse into one row;
+ * a scheduled flush writes all pending rows as one batched UPSERT (and once more on shutdown).
+ */
+@Service
+@RequiredArgsConstructor
+public class LessonProgressService {
+    private static final String UPSERT = "INSERT INTO lesson_progress (user_id, lesson_id, page, updated_at) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE page = VALUES(page), updated_at = VALUES(updated_at)";
+
+    private final LessonProgressRepository lessonProgressRepository;
+    private final LessonRepository lessonRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Keyed by username so a heartbeat needs no user lookup; ids are resolved once per flush
+    private final ConcurrentHashMap<Key, Position> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> pageCounts = new ConcurrentHashMap<>();
+
+    public void recordPage(Long lessonId, int page) {
+        int pages = getPageCount(lessonId);
+        if (page > pages) {
+            throw new IllegalArgumentException("Page " + page + " is out of range; the lesson has " + pages + " pages");
+        }
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        pending.put(new Key(username, lessonId), new Position(page, LocalDateTime.now()));
+    }
+
+    public int getPageCount(Long lessonId) {
+        return pageCounts.computeIfAbsent(lessonId, this::loadPageCount);
+    }
+
+    // Last known page for resuming: an unflushed heartbeat wins over the stored row
+    public Integer getPage(Long userId, String username, Long lessonId) {
+        Position position = pending.get(new Key(username, lessonId));
+        if (position != null) {
+            return position.page;
+        }
+        return lessonProgressRepository.findById(new LessonProgress.Key(userId, lessonId))
+                .map(LessonProgress::getPage)
+                .orElse(null);
+    }
+
+    // Called when a lesson's content changes or the lesson is removed
+    public void evictLesson(Long lessonId) {
+        pageCounts.remove(lessonId);
+    }
+
+    public void deleteLesson(Long lessonId) {
+        evictLesson(lessonId);
+        pending.keySet().removeIf(key -> key.lessonId.equals(lessonId));
+        lessonProgressRepository.deleteByLessonId(lessonId);
+    }
+
+    @Scheduled(fixedDelayString = "${lesson.progress.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Key, Position> drained = new HashMap<>();
+        pending.forEach((key, position) -> {
+            // Only drops the entry if no newer heartbeat replaced it meanwhile
+            if (pending.remove(key, position)) {
+                drained.put(key, position);
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        try {
+            Set<String> usernames = new HashSet<>();
+            drained.keySet().forEach(key -> usernames.add(key.username));
+            Map<String, Long> userIds = new HashMap<>();
+            for (Object[] row : userRepository.findIdsByUsernameIn(usernames)) {
+                userIds.put((String) row[0], (Long) row[1]);
+            }
+
+            List<Object[]> rows = new ArrayList<>();
+            drained.forEach((key, position) -> {
+                Long userId = userIds.get(key.username);
+                // Users deleted since the heartbeat are skipped
+                if (userId != null) {
+                    rows.add(new Object[]{userId, key.lessonId, position.page, Timestamp.valueOf(position.at)});
+                }
+            });
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        } catch (Exception e) {
+            System.err.println("Failed to flush lesson progress: " + e.getMessage());
+            // Put the positions back unless a newer heartbeat arrived in the meantime
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private int loadPageCount(Long lessonId) {
+        int pages = lessonRepository.countContentPages(lessonId);
+        if (pages == 0 && !lessonRepository.existsById(lessonId)) {
+            throw new IllegalArgumentException("Lesson not found");
+        }
+        return pages;
+    }
+
+    private static class Key {
+        private final String username;
+        private final Long lessonId;
+
+        Key(String username, Long lessonId) {
+            this.username = username;
+            this.lessonId = lessonId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return username.equals(other.username) && lessonId.equals(other.lessonId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, lessonId);
+        }
+    }
+
+    private static class Position {
+        private final int page;
+        private final LocalDateTime at;
+
+        Position(int page, LocalDateTime at) {
+            this.page = page;
+            this.at = at;
+        }
+    }
+}
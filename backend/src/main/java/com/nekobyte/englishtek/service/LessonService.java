@@ -1,21 +1,31 @@
 package com.nekobyte.englishtek.service;
 
+import com.nekobyte.englishtek.dto.lesson.LessonContentStatsResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonPagesResponse;
 import com.nekobyte.englishtek.dto.lesson.LessonPdfResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonProgressRequest;
 import com.nekobyte.englishtek.dto.lesson.LessonRequest;
 import com.nekobyte.englishtek.dto.lesson.LessonResponse;
+import com.nekobyte.englishtek.dto.lesson.LessonSummaryResponse;
 import com.nekobyte.englishtek.model.*;
 import com.nekobyte.englishtek.repository.ChapterRepository;
 import com.nekobyte.englishtek.repository.LessonAttemptRepository;
 import com.nekobyte.englishtek.repository.LessonRepository;
+import com.nekobyte.englishtek.util.ContentCompression;
 import com.nekobyte.englishtek.util.LessonPdfConverter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,20 +35,82 @@ public class LessonService {
     private final ChapterRepository chapterRepository;
     private final LessonAttemptRepository lessonAttemptRepository;
     private final UserService userService;
+    private final ChapterItemOrdering chapterItemOrdering;
+    private final ChapterGraph chapterGraph;
+    private final SearchIndexService searchIndexService;
+    private final LearningPointerService learningPointerService;
+    private final LessonProgressService lessonProgressService;
     private final LessonPdfConverter lessonPdfConverter;
 
-    public List<LessonResponse> getAllLessons() {
-        User currentUser = userService.getCurrentUser();
-        return lessonRepository.findAll().stream()
-                .map(lesson -> mapToResponse(lesson, currentUser))
-                .collect(Collectors.toList());
+    private static final int MAX_PAGE_RANGE = 20;
+
+    public List<LessonSummaryResponse> getAllLessons() {
+        return mapToSummaryResponses(lessonRepository.findSummaryRows());
     }
 
-    public List<LessonResponse> getLessonsByChapter(Long chapterId) {
-        User currentUser = userService.getCurrentUser();
-        return lessonRepository.findByChapterId(chapterId).stream()
-                .map(lesson -> mapToResponse(lesson, currentUser))
-                .collect(Collectors.toList());
+    public List<LessonSummaryResponse> getLessonsByChapter(Long chapterId) {
+        return mapToSummaryResponses(lessonRepository.findSummaryRowsByChapterId(chapterId));
+    }
+
+    // Pages are 1-based and inclusive; 'to' defaults to 'from' for a single page
+    public LessonPagesResponse getLessonPages(Long id, int from, Integer to) {
+        int last = to != null ? to : from;
+        int pageCount = checkPageRange(id, from, last);
+        if (last - from + 1 > MAX_PAGE_RANGE) {
+            throw new IllegalArgumentException("At most " + MAX_PAGE_RANGE + " pages can be fetched at once");
+        }
+
+        List<LessonPagesResponse.Page> pages = new ArrayList<>();
+        for (Object[] row : lessonRepository.findContentPages(id, from - 1, last - 1)) {
+            String content = row[1] != null ? ContentCompression.decompress((byte[]) row[1]) : null;
+            pages.add(new LessonPagesResponse.Page(((Number) row[0]).intValue() + 1, content));
+        }
+        return LessonPagesResponse.builder()
+                .lessonId(id)
+                .pageCount(pageCount)
+                .pages(pages)
+                .build();
+    }
+
+    // The page exactly as stored (gzip), for passing straight through to the client
+    public byte[] getStoredPage(Long id, int page) {
+        checkPageRange(id, page, page);
+        return lessonRepository.findContentPages(id, page - 1, page - 1).stream()
+                .map(row -> (byte[]) row[1])
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Page " + page + " not found"));
+    }
+
+    // Measures stored size against raw size and the cost of decoding, over a sample of stored pages
+    public LessonContentStatsResponse getContentStats(int sampleSize) {
+        List<byte[]> sample = lessonRepository.findStoredContentSample(Math.max(1, Math.min(sampleSize, 5000)));
+
+        // One untimed pass so the timed pass doesn't measure class loading and JIT warm-up
+        sample.forEach(ContentCompression::decompress);
+
+        long rawBytes = 0;
+        long storedBytes = 0;
+        long totalNanos = 0;
+        long maxNanos = 0;
+        for (byte[] stored : sample) {
+            long start = System.nanoTime();
+            String text = ContentCompression.decompress(stored);
+            long elapsed = System.nanoTime() - start;
+            totalNanos += elapsed;
+            maxNanos = Math.max(maxNanos, elapsed);
+            rawBytes += text.getBytes(StandardCharsets.UTF_8).length;
+            storedBytes += stored.length;
+        }
+
+        return LessonContentStatsResponse.builder()
+                .sampledPages(sample.size())
+                .rawBytes(rawBytes)
+                .storedBytes(storedBytes)
+                .compressionRatio(rawBytes > 0 ? (double) storedBytes / rawBytes : 0)
+                .averageDecodeMicros(sample.isEmpty() ? 0 : totalNanos / 1000.0 / sample.size())
+                .maxDecodeMicros(maxNanos / 1000.0)
+                .build();
     }
 
     public LessonResponse getLesson(Long id) {
@@ -58,8 +130,11 @@ public class LessonService {
         lesson.setTitle(request.getTitle());
         lesson.setDescription(request.getDescription());
         lesson.setContent(request.getContent());
+        lesson.setOrder(chapterItemOrdering.nextOrder(chapter.getId()));
 
         lesson = lessonRepository.save(lesson);
+        chapterGraph.invalidate();
+        searchIndexService.indexLesson(lesson);
         return mapToResponse(lesson, userService.getCurrentUser());
     }
 
@@ -77,6 +152,9 @@ public class LessonService {
         lesson.setContent(request.getContent());
 
         lesson = lessonRepository.save(lesson);
+        chapterGraph.invalidate();
+        searchIndexService.indexLesson(lesson);
+        lessonProgressService.evictLesson(id);
         return mapToResponse(lesson, userService.getCurrentUser());
     }
 
@@ -85,7 +163,10 @@ public class LessonService {
         if (!lessonRepository.existsById(id)) {
             throw new IllegalArgumentException("Lesson not found");
         }
+        lessonProgressService.deleteLesson(id);
         lessonRepository.deleteById(id);
+        chapterGraph.invalidate();
+        searchIndexService.remove("lesson", id);
     }
 
     @Transactional
@@ -124,6 +205,7 @@ public class LessonService {
 
         attempt.setCompletedAt(LocalDateTime.now());
         lessonAttemptRepository.save(attempt);
+        learningPointerService.itemCompleted(currentUser.getId(), "lesson", id);
     }
 
     @Transactional
@@ -155,10 +237,15 @@ public class LessonService {
 
         attempt.setCompletedAt(LocalDateTime.now());
         lessonAttemptRepository.save(attempt);
+        learningPointerService.itemCompleted(currentUser.getId(), "lesson", id);
 
         return mapToResponse(lesson, currentUser);
     }
 
+    public void recordProgress(Long id, LessonProgressRequest request) {
+        lessonProgressService.recordPage(id, request.getPage());
+    }
+
     public LessonPdfResponse getLessonAsPdf(Long id) throws IOException {
         Lesson lesson = lessonRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Lesson not found"));
@@ -171,6 +258,29 @@ public class LessonService {
                 .build();
     }
 
+    private int checkPageRange(Long id, int from, int last) {
+        int pageCount = lessonProgressService.getPageCount(id);
+        if (from < 1 || last < from || last > pageCount) {
+            throw new IllegalArgumentException("Invalid page range " + from + "-" + last + "; the lesson has " + pageCount + " pages");
+        }
+        return pageCount;
+    }
+
+    private List<LessonSummaryResponse> mapToSummaryResponses(List<Object[]> rows) {
+        User currentUser = userService.getCurrentUser();
+        Set<Long> completedLessonIds = new HashSet<>(lessonAttemptRepository.findCompletedLessonIds(currentUser.getId()));
+        return rows.stream()
+                .map(row -> LessonSummaryResponse.builder()
+                        .id((Long) row[0])
+                        .chapterId((Long) row[1])
+                        .title((String) row[2])
+                        .description((String) row[3])
+                        .pageCount(((Number) row[4]).intValue())
+                        .completed(completedLessonIds.contains((Long) row[0]))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     private LessonResponse mapToResponse(Lesson lesson, User currentUser) {
         boolean completed = lessonAttemptRepository
                 .findByUserIdAndLessonId(currentUser.getId(), lesson.getId())
@@ -184,6 +294,7 @@ public class LessonService {
                 .description(lesson.getDescription())
                 .content(lesson.getContent())
                 .completed(completed)
+                .currentPage(lessonProgressService.getPage(currentUser.getId(), currentUser.getUsername(), lesson.getId()))
                 .build();
     }
 }
@@ -0,0 +1,212 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.quiz.QuizAttemptHistoryResponse;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizAttempt;
+import com.nekobyte.englishtek.model.QuizAttemptHistory;
+import com.nekobyte.englishtek.repository.QuizAttemptHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only quiz attempt history and upkeep of its monthly partitions. Upcoming months are split off
+ * the empty catch-all partition ahead of time, and months past the retention window are removed with
+ * DROP PARTITION instead of row deletes.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizAttemptHistoryService {
+    private static final String TABLE = "quiz_attempt_history";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final QuizAttemptHistoryRepository quizAttemptHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.history.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps history forever
+    @Value("${quiz.history.retention-months:0}")
+    private int retentionMonths;
+
+    public void record(QuizAttempt attempt, Quiz quiz) {
+        QuizAttemptHistory history = new QuizAttemptHistory();
+        history.setUserId(attempt.getUser().getId());
+        history.setQuizId(quiz.getId());
+        history.setChapterId(quiz.getChapter() != null ? quiz.getChapter().getId() : null);
+        history.setQuizTitle(quiz.getTitle());
+        history.setScore(attempt.getScore());
+        history.setMaxScore(quiz.getMaxScore());
+        history.setNumberOfItems(quiz.getNumberOfItems());
+        history.setAnswers(attempt.getAnswers());
+        history.setStartedAt(attempt.getStartedAt());
+        history.setCompletedAt(attempt.getCompletedAt());
+        quizAttemptHistoryRepository.save(history);
+    }
+
+    public List<QuizAttemptHistory> findHistory(Long userId, Long quizId, LocalDateTime from, LocalDateTime to) {
+        return quizId != null
+                ? quizAttemptHistoryRepository.findByUserIdAndQuizIdAndCompletedAtBetweenOrderByCompletedAtDesc(userId, quizId, from, to)
+                : quizAttemptHistoryRepository.findByUserIdAndCompletedAtBetweenOrderByCompletedAtDesc(userId, from, to);
+    }
+
+    public List<QuizAttemptHistoryResponse> getHistory(Long userId, Long quizId, LocalDate from, LocalDate to) {
+        // Default to the last year so an unbounded request still prunes to a handful of partitions
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        return findHistory(userId, quizId, start.atStartOfDay(), end.plusDays(1).atStartOfDay()).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hibernate creates the history table unpartitioned. On the first start it is converted in place to monthly
+     * partitions covering every completed attempt, and seeded with the attempts completed before history was
+     * kept. Runs during startup before anything writes; if the table cannot be partitioned the application
+     * does not start.
+     */
+    public void preparePartitions() {
+        if (!partitions().isEmpty()) {
+            return;
+        }
+        try {
+            // Seeded first: should partitioning fail, the next start seeds (a no-op by then) and tries again
+            seedFromAttempts();
+            LocalDateTime earliest = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MIN(completed_at), NOW()) FROM " + TABLE, LocalDateTime.class);
+            LocalDate first = (earliest != null ? earliest.toLocalDate() : LocalDate.now()).withDayOfMonth(1);
+            LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+
+            StringBuilder definitions = new StringBuilder();
+            for (LocalDate month = first; month.isBefore(target); month = month.plusMonths(1)) {
+                definitions.append("PARTITION ").append(month.format(PARTITION_NAME))
+                        .append(" VALUES LESS THAN ('").append(month.plusMonths(1)).append("'), ");
+            }
+            definitions.append("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+
+            // MySQL requires the partitioning column in every unique key
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, completed_at)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS (completed_at) (" + definitions + ")");
+            System.out.println("Partitioned " + TABLE + " by month from " + first);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Could not partition " + TABLE + ": " + e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${quiz.history.maintenance-cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            List<Map<String, Object>> partitions = partitions();
+            if (partitions.isEmpty()) {
+                // preparePartitions ran at startup, so someone rebuilt the table since
+                throw new IllegalStateException("Table " + TABLE + " is not partitioned");
+            }
+
+            createUpcomingPartitions(partitions);
+            if (retentionMonths > 0) {
+                dropExpiredPartitions(partitions);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to maintain " + TABLE + " partitions: " + e.getMessage());
+        }
+    }
+
+    private List<Map<String, Object>> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", TABLE);
+    }
+
+    // Completed attempts from before history was kept; matched on user, quiz and completion time so attempts
+    // recorded since are not copied twice. Ids are moved past the existing ones to stay unique.
+    private void seedFromAttempts() {
+        Long offset = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + TABLE, Long.class);
+        int seeded = jdbcTemplate.update("INSERT INTO " + TABLE + " (id, user_id, quiz_id, chapter_id, quiz_title, score, " +
+                "max_score, number_of_items, answers, started_at, completed_at) " +
+                "SELECT qa.id + ?, qa.user_id, qa.quiz_id, q.chapter_id, q.title, qa.score, q.max_score, " +
+                "q.number_of_items, qa.answers, qa.started_at, qa.completed_at " +
+                "FROM quiz_attempts qa JOIN quizzes q ON q.id = qa.quiz_id " +
+                "WHERE qa.completed_at IS NOT NULL AND NOT EXISTS (SELECT 1 FROM " + TABLE + " h " +
+                "WHERE h.user_id = qa.user_id AND h.quiz_id = qa.quiz_id AND h.completed_at = qa.completed_at)", offset);
+        if (seeded > 0) {
+            System.out.println("Seeded " + TABLE + " with " + seeded + " earlier attempts");
+        }
+    }
+
+    private void createUpcomingPartitions(List<Map<String, Object>> partitions) {
+        // Highest bounded partition; everything after it currently falls into pmax
+        LocalDate lastBound = partitions.stream()
+                .map(this::upperBound)
+                .filter(Objects::nonNull)
+                .max(LocalDate::compareTo)
+                .orElse(LocalDate.now().withDayOfMonth(1));
+        LocalDate target = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead + 1L);
+        if (!lastBound.isBefore(target)) {
+            return;
+        }
+
+        StringBuilder definitions = new StringBuilder();
+        for (LocalDate month = lastBound; month.isBefore(target); month = month.plusMonths(1)) {
+            definitions.append("PARTITION ").append(month.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1)).append("'), ");
+        }
+        definitions.append("PARTITION pmax VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION pmax INTO (" + definitions + ")");
+    }
+
+    private void dropExpiredPartitions(List<Map<String, Object>> partitions) {
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+        for (Map<String, Object> partition : partitions) {
+            LocalDate bound = upperBound(partition);
+            // Only partitions whose every row is older than the cutoff
+            if (bound != null && !bound.isAfter(cutoff)) {
+                String name = (String) partition.get("PARTITION_NAME");
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + name);
+                System.out.println("Dropped " + TABLE + " partition " + name);
+            }
+        }
+    }
+
+    // PARTITION_DESCRIPTION is e.g. '2026-11-01' for RANGE COLUMNS, or MAXVALUE
+    private LocalDate upperBound(Map<String, Object> partition) {
+        String description = String.valueOf(partition.get("PARTITION_DESCRIPTION")).replace("'", "").trim();
+        if (description.equalsIgnoreCase("MAXVALUE") || description.length() < 10) {
+            return null;
+        }
+        return LocalDate.parse(description.substring(0, 10));
+    }
+
+    private QuizAttemptHistoryResponse mapToResponse(QuizAttemptHistory history) {
+        return QuizAttemptHistoryResponse.builder()
+                .id(history.getId())
+                .quizId(history.getQuizId())
+                .chapterId(history.getChapterId())
+                .quizTitle(history.getQuizTitle())
+                .score(history.getScore())
+                .maxScore(history.getMaxScore())
+                .numberOfItems(history.getNumberOfItems())
+                .startedAt(history.getStartedAt())
+                .completedAt(history.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.nekobyte.englishtek.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nekobyte.englishtek.model.QuizAttempt;
+import com.nekobyte.englishtek.model.User;
+import com.nekobyte.englishtek.repository.QuizAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Autosaved answers of in-progress quiz attempts. Saves only touch the in-memory draft; a scheduled
+ * write-behind flush persists each changed draft at most once per interval (and once more on shutdown),
+ * so a client saving after every question costs one UPDATE per few seconds at most.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizDraftService {
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final UserService userService;
+    private final QuizGrader quizGrader;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${quiz.drafts.idle-eviction-ms:600000}")
+    private long idleEvictionMs;
+
+    private final ConcurrentHashMap<Long, Draft> drafts = new ConcurrentHashMap<>();
+    // username:quizId -> attempt id, so repeated saves skip the user and attempt lookups
+    private final ConcurrentHashMap<String, Long> attemptIds = new ConcurrentHashMap<>();
+
+    public void saveDraft(Long quizId, Map<Long, JsonNode> submitted) {
+        String key = SecurityContextHolder.getContext().getAuthentication().getName() + ":" + quizId;
+        Map<Long, String> answers = quizGrader.toAnswers(submitted);
+        Long attemptId = attemptIds.get(key);
+        Draft cached = attemptId != null ? drafts.get(attemptId) : null;
+        Draft draft = cached != null ? cached : loadDraft(quizId);
+
+        // Written inside the map's per-key lock, which eviction and discard also take, so a draft is never
+        // removed halfway through a write; one removed since the lookup is loaded again from the attempt
+        while (drafts.computeIfPresent(draft.attemptId, (id, current) -> current.apply(answers)) == null) {
+            draft = loadDraft(quizId);
+        }
+        attemptIds.put(key, draft.attemptId);
+    }
+
+    // Answers to resume an attempt with: the live draft if there is one, otherwise what was last flushed
+    public Map<Long, String> getAnswers(QuizAttempt attempt) {
+        Draft draft = drafts.get(attempt.getId());
+        if (draft != null) {
+            return new HashMap<>(draft.answers);
+        }
+        return attempt.getDraftAnswers() != null ? quizGrader.decodeAnswers(attempt.getDraftAnswers()) : new HashMap<>();
+    }
+
+    // Called when an attempt is submitted or replaced; its draft is no longer needed
+    public void discard(Long attemptId) {
+        if (attemptId != null) {
+            drafts.remove(attemptId);
+            attemptIds.values().removeIf(attemptId::equals);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.drafts.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        Map<Long, Map<Long, String>> changed = new HashMap<>();
+        List<Long> evicted = new ArrayList<>();
+        // Checked and removed under the same per-key lock saveDraft writes under
+        drafts.keySet().forEach(attemptId -> drafts.computeIfPresent(attemptId, (id, draft) -> {
+            if (draft.dirty) {
+                draft.dirty = false;
+                changed.put(id, new HashMap<>(draft.answers));
+            } else if (now - draft.lastTouched > idleEvictionMs) {
+                // Already persisted; resuming falls back to the stored draft
+                evicted.add(id);
+                return null;
+            }
+            return draft;
+        }));
+        evicted.forEach(attemptId -> attemptIds.values().removeIf(attemptId::equals));
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime savedAt = LocalDateTime.now();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    changed.forEach((attemptId, answers) ->
+                            quizAttemptRepository.updateDraft(attemptId, quizGrader.encodeAnswers(answers), savedAt)));
+        } catch (Exception e) {
+            System.err.println("Failed to flush quiz drafts: " + e.getMessage());
+            changed.keySet().forEach(attemptId -> drafts.computeIfPresent(attemptId, (id, draft) -> {
+                draft.dirty = true;
+                return draft;
+            }));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Draft loadDraft(Long quizId) {
+        User currentUser = userService.getCurrentUser();
+        QuizAttempt attempt = quizAttemptRepository.findByUserIdAndQuizId(currentUser.getId(), quizId)
+                .orElseThrow(() -> new IllegalStateException("Cannot save answers for a quiz that hasn't been started. Please start the quiz first."));
+        if (attempt.getCompletedAt() != null) {
+            throw new IllegalStateException("This quiz has already been completed.");
+        }
+
+        return drafts.computeIfAbsent(attempt.getId(), id -> {
+            Draft draft = new Draft(id);
+            if (attempt.getDraftAnswers() != null) {
+                draft.answers.putAll(quizGrader.decodeAnswers(attempt.getDraftAnswers()));
+            }
+            return draft;
+        });
+    }
+
+    private static class Draft {
+        private final Long attemptId;
+        private final ConcurrentHashMap<Long, String> answers = new ConcurrentHashMap<>();
+        private volatile boolean dirty;
+        private volatile long lastTouched = System.currentTimeMillis();
+
+        Draft(Long attemptId) {
+            this.attemptId = attemptId;
+        }
+
+        // Merges answers in; a blank answer clears that question
+        Draft apply(Map<Long, String> updates) {
+            updates.forEach((questionId, answer) -> {
+                if (answer == null || answer.isBlank()) {
+                    answers.remove(questionId);
+                } else {
+                    answers.put(questionId, answer);
+                }
+            });
+            lastTouched = System.currentTimeMillis();
+            dirty = true;
+            return this;
+        }
+    }
+}
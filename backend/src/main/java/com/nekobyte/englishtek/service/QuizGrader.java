@@ -0,0 +1,188 @@
+package com.nekobyte.englishtek.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.util.FuzzyMatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Grades submitted answers against a quiz's answer keys. A multiple choice answer is a JSON array of the
+ * selected choices and is correct only when they match the correct choices exactly (trimmed,
+ * case-insensitive); identification answers go through {@link FuzzyMatcher} with the question's typo
+ * tolerance.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizGrader {
+    private static final TypeReference<Map<Long, String>> ANSWERS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<String>> CHOICES_TYPE = new TypeReference<>() {};
+    private static final ObjectMapper CHOICES_MAPPER = new ObjectMapper();
+
+    private final ObjectMapper objectMapper;
+
+    // Parse each question's answer key once so a whole batch of attempts can be graded against it
+    public Map<Long, AnswerKey> compileAnswerKeys(List<QuizQuestion> questions) {
+        Map<Long, AnswerKey> answerKeys = new HashMap<>();
+        for (QuizQuestion question : questions) {
+            answerKeys.put(question.getId(), compileAnswerKey(question));
+        }
+        return answerKeys;
+    }
+
+    public int grade(Map<Long, AnswerKey> answerKeys, Map<Long, String> answers, int maxScore) {
+        return score(correctQuestionIds(answerKeys, answers).size(), answerKeys.size(), maxScore);
+    }
+
+    // Every question is worth an equal share of the quiz's max score, as the web client counts it
+    public int score(int correct, int questionCount, int maxScore) {
+        if (questionCount == 0) {
+            return 0;
+        }
+        return (int) Math.round(correct * (double) maxScore / questionCount);
+    }
+
+    public Set<Long> correctQuestionIds(Map<Long, AnswerKey> answerKeys, Map<Long, String> answers) {
+        Set<Long> correct = new HashSet<>();
+        for (Map.Entry<Long, String> answer : answers.entrySet()) {
+            AnswerKey answerKey = answerKeys.get(answer.getKey());
+            if (answerKey != null && answerKey.matches(answer.getValue())) {
+                correct.add(answer.getKey());
+            }
+        }
+        return correct;
+    }
+
+    // Submitted answers in the stored form: a selection of choices is kept as its JSON array text
+    public Map<Long, String> toAnswers(Map<Long, JsonNode> submitted) {
+        Map<Long, String> answers = new HashMap<>();
+        submitted.forEach((questionId, value) -> {
+            if (value == null || value.isNull()) {
+                answers.put(questionId, "");
+            } else if (value.isArray()) {
+                answers.put(questionId, value.toString());
+            } else {
+                answers.put(questionId, value.asText());
+            }
+        });
+        return answers;
+    }
+
+    /**
+     * The choices selected in a stored multiple choice answer. Answers saved before selections were sent
+     * as arrays are comma-joined; those are split back along the question's own choices, so a choice that
+     * contains a comma (e.g. "Yes, I do") stays whole.
+     */
+    public static List<String> selectedChoices(String answer, List<String> choices) {
+        if (answer == null || answer.isBlank()) {
+            return List.of();
+        }
+        String value = answer.trim();
+        if (value.startsWith("[")) {
+            try {
+                return CHOICES_MAPPER.readValue(value, CHOICES_TYPE).stream()
+                        .filter(Objects::nonNull)
+                        .map(String::trim)
+                        .collect(Collectors.toList());
+            } catch (JsonProcessingException e) {
+                // Not an array after all; read it like a legacy answer
+            }
+        }
+
+        Set<String> known = choices == null ? Set.of()
+                : choices.stream().map(QuizGrader::normalize).collect(Collectors.toSet());
+        String[] parts = value.split(",", -1);
+        List<String> selected = new ArrayList<>();
+        int start = 0;
+        while (start < parts.length) {
+            // The longest run of parts that spells a known choice, otherwise the part on its own
+            int end = start;
+            for (int candidate = parts.length - 1; candidate > start; candidate--) {
+                if (known.contains(normalize(String.join(",", Arrays.copyOfRange(parts, start, candidate + 1))))) {
+                    end = candidate;
+                    break;
+                }
+            }
+            selected.add(String.join(",", Arrays.copyOfRange(parts, start, end + 1)).trim());
+            start = end + 1;
+        }
+        return selected;
+    }
+
+    public String encodeAnswers(Map<Long, String> answers) {
+        try {
+            return objectMapper.writeValueAsString(answers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid answers: " + e.getMessage(), e);
+        }
+    }
+
+    public Map<Long, String> decodeAnswers(String encodedAnswers) {
+        try {
+            return objectMapper.readValue(encodedAnswers, ANSWERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse stored answers: " + e.getMessage(), e);
+        }
+    }
+
+    private AnswerKey compileAnswerKey(QuizQuestion question) {
+        List<String> correctAnswers = new ArrayList<>();
+        try {
+            JsonNode node = objectMapper.readTree(question.getCorrectAnswer());
+            if (node.isArray()) {
+                node.forEach(value -> correctAnswers.add(normalize(value.asText())));
+            } else if (!node.isNull()) {
+                correctAnswers.add(normalize(node.asText()));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse correct answer: " + e.getMessage(), e);
+        }
+        if ("multiple_choice".equals(question.getType())) {
+            return new AnswerKey(correctAnswers, question.getChoices(), null);
+        }
+        int maxEdits = question.getMaxEdits() != null ? question.getMaxEdits() : 0;
+        return new AnswerKey(null, null, FuzzyMatcher.compile(correctAnswers.isEmpty() ? "" : correctAnswers.get(0), maxEdits));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+
+    public static class AnswerKey {
+        private final Set<String> correctAnswers;
+        private final List<String> choices;
+        private final FuzzyMatcher textMatcher;
+
+        AnswerKey(List<String> correctAnswers, List<String> choices, FuzzyMatcher textMatcher) {
+            this.correctAnswers = correctAnswers != null ? new HashSet<>(correctAnswers) : null;
+            this.choices = choices;
+            this.textMatcher = textMatcher;
+        }
+
+        public boolean matches(String answer) {
+            if (answer == null) {
+                return false;
+            }
+            if (textMatcher != null) {
+                return textMatcher.matches(answer);
+            }
+
+            List<String> selected = selectedChoices(answer, choices);
+            Set<String> normalized = selected.stream().map(QuizGrader::normalize).collect(Collectors.toSet());
+            return selected.size() == normalized.size() && normalized.equals(correctAnswers);
+        }
+    }
+}
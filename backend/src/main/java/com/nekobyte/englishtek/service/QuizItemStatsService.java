@@ -0,0 +1,325 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.quiz.QuizItemStatsResponse;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.model.QuizQuestionStats;
+import com.nekobyte.englishtek.repository.QuizQuestionStatsRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-question item analysis. Graded answers bump striped in-memory counters (O(1), no DB work on the
+ * submit path); a scheduled flush folds the accumulated deltas into quiz_question_stats. Reads combine
+ * the stored totals with whatever has not been flushed yet, so they never scan attempts.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizItemStatsService {
+    private static final String OTHER_CHOICE = "(other)";
+
+    private final QuizQuestionStatsRepository quizQuestionStatsRepository;
+    private final QuizRepository quizRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, Counters> pending = new ConcurrentHashMap<>();
+
+    public void record(Quiz quiz, Map<Long, String> answers, Set<Long> correctQuestionIds, int score) {
+        Long quizId = quiz.getId();
+        List<Increment> increments = new ArrayList<>();
+        for (QuizQuestion question : quiz.getQuestions()) {
+            List<String> selectedChoices = "multiple_choice".equals(question.getType())
+                    ? selectedChoices(question, answers.get(question.getId()))
+                    : List.of();
+            increments.add(new Increment(question.getId(), correctQuestionIds.contains(question.getId()), selectedChoices));
+        }
+
+        // Only count submissions that actually commit
+        Runnable apply = () -> {
+            for (Increment increment : increments) {
+                counters(increment.questionId, quizId).add(increment.correct, score, increment.selectedChoices);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    // Drops the statistics of questions whose answer key changed or that were removed
+    public void resetQuestions(Collection<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(questionIds);
+        Runnable reset = () -> {
+            synchronized (this) {
+                ids.forEach(pending::remove);
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> quizQuestionStatsRepository.deleteByQuestionIdIn(ids));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reset.run();
+                }
+            });
+        } else {
+            reset.run();
+        }
+    }
+
+    public QuizItemStatsResponse getQuizStats(Long quizId) {
+        Quiz quiz = quizRepository.findWithQuestionsById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        Map<Long, QuizQuestionStats> stored = quizQuestionStatsRepository.findByQuizId(quizId).stream()
+                .collect(Collectors.toMap(QuizQuestionStats::getQuestionId, Function.identity()));
+
+        List<QuizItemStatsResponse.QuestionStats> questions = new ArrayList<>();
+        for (QuizQuestion question : quiz.getQuestions()) {
+            Delta totals = Delta.of(stored.get(question.getId()));
+            Counters counters = pending.get(question.getId());
+            if (counters != null) {
+                totals.merge(counters.snapshot());
+            }
+            questions.add(mapToQuestionStats(question, totals));
+        }
+
+        return QuizItemStatsResponse.builder()
+                .quizId(quiz.getId())
+                .title(quiz.getTitle())
+                .questions(questions)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.item-stats.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        Map<Long, Delta> deltas = new HashMap<>();
+        pending.forEach((questionId, counters) -> {
+            Delta delta = counters.drain();
+            if (delta.attempts > 0) {
+                deltas.put(questionId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Map<Long, QuizQuestionStats> rows = quizQuestionStatsRepository.findAllById(deltas.keySet()).stream()
+                        .collect(Collectors.toMap(QuizQuestionStats::getQuestionId, Function.identity()));
+                deltas.forEach((questionId, delta) -> {
+                    QuizQuestionStats row = rows.computeIfAbsent(questionId, id -> {
+                        QuizQuestionStats stats = new QuizQuestionStats();
+                        stats.setQuestionId(id);
+                        stats.setQuizId(delta.quizId);
+                        return stats;
+                    });
+                    delta.applyTo(row);
+                });
+                quizQuestionStatsRepository.saveAll(rows.values());
+            });
+        } catch (Exception e) {
+            // Put the deltas back so they are retried on the next flush
+            System.err.println("Failed to flush quiz item stats: " + e.getMessage());
+            deltas.forEach((questionId, delta) -> counters(questionId, delta.quizId).restore(delta));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Counters counters(Long questionId, Long quizId) {
+        return pending.computeIfAbsent(questionId, id -> new Counters(quizId));
+    }
+
+    // Maps the selection back to the question's own choice labels
+    private List<String> selectedChoices(QuizQuestion question, String answer) {
+        List<String> selected = new ArrayList<>();
+        for (String value : QuizGrader.selectedChoices(answer, question.getChoices())) {
+            selected.add(question.getChoices().stream()
+                    .filter(choice -> choice.trim().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElse(OTHER_CHOICE));
+        }
+        return selected;
+    }
+
+    private QuizItemStatsResponse.QuestionStats mapToQuestionStats(QuizQuestion question, Delta totals) {
+        Double correctRate = totals.attempts > 0 ? (double) totals.correctCount / totals.attempts : null;
+
+        // Point-biserial correlation from the running sums; undefined while everyone scores alike
+        Double discriminationIndex = null;
+        double n = totals.attempts;
+        double correct = totals.correctCount;
+        double variance = (n * correct - correct * correct) * (n * totals.scoreSquareSum - (double) totals.scoreSum * totals.scoreSum);
+        if (variance > 0) {
+            discriminationIndex = (n * totals.correctScoreSum - correct * totals.scoreSum) / Math.sqrt(variance);
+        }
+
+        return QuizItemStatsResponse.QuestionStats.builder()
+                .questionId(question.getId())
+                .page(question.getPage())
+                .type(question.getType())
+                .title(question.getTitle())
+                .attempts(totals.attempts)
+                .correctCount(totals.correctCount)
+                .correctRate(correctRate)
+                .discriminationIndex(discriminationIndex)
+                .choiceDistribution(totals.choiceCounts)
+                .build();
+    }
+
+    private static class Increment {
+        private final Long questionId;
+        private final boolean correct;
+        private final List<String> selectedChoices;
+
+        Increment(Long questionId, boolean correct, List<String> selectedChoices) {
+            this.questionId = questionId;
+            this.correct = correct;
+            this.selectedChoices = selectedChoices;
+        }
+    }
+
+    private static class Counters {
+        private final Long quizId;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder correctCount = new LongAdder();
+        private final LongAdder scoreSum = new LongAdder();
+        private final LongAdder scoreSquareSum = new LongAdder();
+        private final LongAdder correctScoreSum = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> choiceCounts = new ConcurrentHashMap<>();
+
+        Counters(Long quizId) {
+            this.quizId = quizId;
+        }
+
+        void add(boolean correct, long score, List<String> selectedChoices) {
+            attempts.increment();
+            scoreSum.add(score);
+            scoreSquareSum.add(score * score);
+            if (correct) {
+                correctCount.increment();
+                correctScoreSum.add(score);
+            }
+            for (String choice : selectedChoices) {
+                choiceCounts.computeIfAbsent(choice, key -> new LongAdder()).increment();
+            }
+        }
+
+        void restore(Delta delta) {
+            attempts.add(delta.attempts);
+            correctCount.add(delta.correctCount);
+            scoreSum.add(delta.scoreSum);
+            scoreSquareSum.add(delta.scoreSquareSum);
+            correctScoreSum.add(delta.correctScoreSum);
+            delta.choiceCounts.forEach((choice, count) -> choiceCounts.computeIfAbsent(choice, key -> new LongAdder()).add(count));
+        }
+
+        Delta drain() {
+            Delta delta = new Delta(quizId);
+            delta.attempts = attempts.sumThenReset();
+            delta.correctCount = correctCount.sumThenReset();
+            delta.scoreSum = scoreSum.sumThenReset();
+            delta.scoreSquareSum = scoreSquareSum.sumThenReset();
+            delta.correctScoreSum = correctScoreSum.sumThenReset();
+            choiceCounts.forEach((choice, count) -> {
+                long value = count.sumThenReset();
+                if (value > 0) {
+                    delta.choiceCounts.put(choice, value);
+                }
+            });
+            return delta;
+        }
+
+        Delta snapshot() {
+            Delta delta = new Delta(quizId);
+            delta.attempts = attempts.sum();
+            delta.correctCount = correctCount.sum();
+            delta.scoreSum = scoreSum.sum();
+            delta.scoreSquareSum = scoreSquareSum.sum();
+            delta.correctScoreSum = correctScoreSum.sum();
+            choiceCounts.forEach((choice, count) -> delta.choiceCounts.put(choice, count.sum()));
+            return delta;
+        }
+    }
+
+    private static class Delta {
+        private final Long quizId;
+        private long attempts;
+        private long correctCount;
+        private long scoreSum;
+        private long scoreSquareSum;
+        private long correctScoreSum;
+        private final Map<String, Long> choiceCounts = new LinkedHashMap<>();
+
+        Delta(Long quizId) {
+            this.quizId = quizId;
+        }
+
+        static Delta of(QuizQuestionStats stats) {
+            Delta delta = new Delta(stats != null ? stats.getQuizId() : null);
+            if (stats != null) {
+                delta.attempts = stats.getAttempts();
+                delta.correctCount = stats.getCorrectCount();
+                delta.scoreSum = stats.getScoreSum();
+                delta.scoreSquareSum = stats.getScoreSquareSum();
+                delta.correctScoreSum = stats.getCorrectScoreSum();
+                delta.choiceCounts.putAll(stats.getChoiceCounts());
+            }
+            return delta;
+        }
+
+        void merge(Delta other) {
+            attempts += other.attempts;
+            correctCount += other.correctCount;
+            scoreSum += other.scoreSum;
+            scoreSquareSum += other.scoreSquareSum;
+            correctScoreSum += other.correctScoreSum;
+            other.choiceCounts.forEach((choice, count) -> choiceCounts.merge(choice, count, Long::sum));
+        }
+
+        void applyTo(QuizQuestionStats stats) {
+            stats.setAttempts(stats.getAttempts() + attempts);
+            stats.setCorrectCount(stats.getCorrectCount() + correctCount);
+            stats.setScoreSum(stats.getScoreSum() + scoreSum);
+            stats.setScoreSquareSum(stats.getScoreSquareSum() + scoreSquareSum);
+            stats.setCorrectScoreSum(stats.getCorrectScoreSum() + correctScoreSum);
+            // Copy so Hibernate sees a new value for the converted column
+            Map<String, Long> choiceCounts = new LinkedHashMap<>(stats.getChoiceCounts());
+            this.choiceCounts.forEach((choice, count) -> choiceCounts.merge(choice, count, Long::sum));
+            stats.setChoiceCounts(choiceCounts);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.quiz.QuizRegradeJobResponse;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizRegradeJob;
+import com.nekobyte.englishtek.model.User;
+import com.nekobyte.englishtek.repository.QuizAttemptRepository;
+import com.nekobyte.englishtek.repository.QuizRegradeJobRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recomputes stored quiz attempt scores after an answer key changes.
+ * Attempts are walked in id order, a window of chunks at a time; chunks in a window are graded in
+ * parallel on a fixed pool (which bounds DB concurrency), and the job's checkpoint is only moved
+ * once the whole window has committed, so a crash resumes from the last finished window.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizRegradeService {
+    private final QuizRegradeJobRepository quizRegradeJobRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizRepository quizRepository;
+    private final UserBadgeService userBadgeService;
+    private final QuizGrader quizGrader;
+    private final LearningPointerService learningPointerService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${quiz.regrade.concurrency:4}")
+    private int concurrency;
+
+    @Value("${quiz.regrade.chunk-size:200}")
+    private int chunkSize;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private ExecutorService chunkExecutor;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (QuizRegradeJob job : quizRegradeJobRepository.findByStatus(QuizRegradeJob.Status.RUNNING)) {
+            System.out.println("Resuming re-grade job " + job.getId() + " for quiz " + job.getQuizId()
+                    + " after attempt " + job.getLastAttemptId());
+            submit(job.getId());
+        }
+    }
+
+    public QuizRegradeJobResponse startRegrade(Long quizId) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new IllegalArgumentException("Quiz not found");
+        }
+
+        QuizRegradeJob job = new QuizRegradeJob();
+        job.setQuizId(quizId);
+        job.setTotalAttempts(quizAttemptRepository.countByQuizIdAndCompletedAtIsNotNullAndAnswersIsNotNull(quizId));
+        job = quizRegradeJobRepository.save(job);
+
+        // When called from a transaction (e.g. updateQuiz), only start once the new answer key is committed
+        Long jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId);
+                }
+            });
+        } else {
+            submit(jobId);
+        }
+        return mapToResponse(job);
+    }
+
+    public QuizRegradeJobResponse getLatestJob(Long quizId) {
+        return quizRegradeJobRepository.findFirstByQuizIdOrderByIdDesc(quizId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new IllegalArgumentException("No re-grade job found for this quiz"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        if (chunkExecutor != null) {
+            chunkExecutor.shutdownNow();
+        }
+    }
+
+    private void submit(Long jobId) {
+        jobExecutor.submit(() -> {
+            try {
+                runJob(jobId);
+            } catch (Exception e) {
+                System.err.println("Re-grade job " + jobId + " failed: " + e.getMessage());
+                e.printStackTrace();
+                markFailed(jobId, e);
+            }
+        });
+    }
+
+    private synchronized ExecutorService chunkExecutor() {
+        if (chunkExecutor == null) {
+            chunkExecutor = Executors.newFixedThreadPool(Math.max(1, concurrency));
+        }
+        return chunkExecutor;
+    }
+
+    private void runJob(Long jobId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        QuizRegradeJob job = quizRegradeJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Re-grade job not found"));
+        if (job.getStatus() != QuizRegradeJob.Status.RUNNING) {
+            return;
+        }
+
+        Long quizId = job.getQuizId();
+        Map<Long, QuizGrader.AnswerKey> answerKeys = transactionTemplate.execute(status -> {
+            Quiz quiz = quizRepository.findWithQuestionsById(quizId)
+                    .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+            return quizGrader.compileAnswerKeys(quiz.getQuestions());
+        });
+
+        while (true) {
+            List<Long> window = quizAttemptRepository.findGradableIdsAfter(
+                    quizId, job.getLastAttemptId(), PageRequest.of(0, chunkSize * Math.max(1, concurrency)));
+            if (window.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<ChunkResult>> futures = new ArrayList<>();
+            for (int start = 0; start < window.size(); start += chunkSize) {
+                List<Long> chunk = window.subList(start, Math.min(start + chunkSize, window.size()));
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> regradeChunk(quizId, chunk, answerKeys)),
+                        chunkExecutor()));
+            }
+
+            // join() rethrows a chunk failure, leaving the checkpoint at the previous window
+            ChunkResult total = new ChunkResult();
+            for (CompletableFuture<ChunkResult> future : futures) {
+                ChunkResult result = future.join();
+                total.changed += result.changed;
+                total.badgesAwarded += result.badgesAwarded;
+            }
+
+            job.setLastAttemptId(window.get(window.size() - 1));
+            job.setProcessedAttempts(job.getProcessedAttempts() + window.size());
+            job.setChangedScores(job.getChangedScores() + total.changed);
+            job.setBadgesAwarded(job.getBadgesAwarded() + total.badgesAwarded);
+            job = quizRegradeJobRepository.save(job);
+        }
+
+        job.setStatus(QuizRegradeJob.Status.COMPLETED);
+        job.setCompletedAt(LocalDateTime.now());
+        quizRegradeJobRepository.save(job);
+
+        // Changed scores can flip quizzes between passed and failed for any learner
+        if (job.getChangedScores() > 0) {
+            learningPointerService.resetAll();
+        }
+    }
+
+    private ChunkResult regradeChunk(Long quizId, List<Long> attemptIds, Map<Long, QuizGrader.AnswerKey> answerKeys) {
+        ChunkResult result = new ChunkResult();
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        double passingScore = quiz.getMaxScore() * 0.8;
+
+        // Scores are written with a guarded update rather than through the loaded entities, which would
+        // flush every column back over anything changed since they were read
+        for (Object[] row : quizAttemptRepository.findGradedAnswers(attemptIds)) {
+            Long attemptId = (Long) row[0];
+            User user = (User) row[1];
+            Integer gradedScore = (Integer) row[3];
+            LocalDateTime completedAt = (LocalDateTime) row[4];
+            int score = quizGrader.grade(answerKeys, quizGrader.decodeAnswers((String) row[2]), quiz.getMaxScore());
+            if (score == gradedScore
+                    || quizAttemptRepository.updateRegradedScore(attemptId, completedAt, gradedScore, score) == 0) {
+                continue;
+            }
+
+            boolean wasPassing = gradedScore >= passingScore;
+            result.changed++;
+
+            // Chapter progress is derived from the attempt score, so only badges need explicit updates
+            if (!wasPassing && score >= passingScore && quiz.getBadge() != null) {
+                userBadgeService.addBadgeToUser(user, quiz.getBadge());
+                result.badgesAwarded++;
+            }
+        }
+        return result;
+    }
+
+    private void markFailed(Long jobId, Exception e) {
+        quizRegradeJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(QuizRegradeJob.Status.FAILED);
+            job.setError(e.getMessage());
+            quizRegradeJobRepository.save(job);
+        });
+    }
+
+    private QuizRegradeJobResponse mapToResponse(QuizRegradeJob job) {
+        double progressPercentage = job.getTotalAttempts() > 0
+                ? Math.min(100.0, job.getProcessedAttempts() * 100.0 / job.getTotalAttempts())
+                : (job.getStatus() == QuizRegradeJob.Status.COMPLETED ? 100.0 : 0);
+
+        return QuizRegradeJobResponse.builder()
+                .id(job.getId())
+                .quizId(job.getQuizId())
+                .status(job.getStatus().name())
+                .totalAttempts(job.getTotalAttempts())
+                .processedAttempts(job.getProcessedAttempts())
+                .changedScores(job.getChangedScores())
+                .badgesAwarded(job.getBadgesAwarded())
+                .progressPercentage(progressPercentage)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private static class ChunkResult {
+        private long changed;
+        private long badgesAwarded;
+    }
+}
@@ -2,24 +2,35 @@ package com.nekobyte.englishtek.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.nekobyte.englishtek.dto.badge.BadgeResponse;
+import com.nekobyte.englishtek.dto.quiz.QuizAttemptHistoryResponse;
 import com.nekobyte.englishtek.dto.quiz.QuizRequest;
 import com.nekobyte.englishtek.dto.quiz.QuizResponse;
 import com.nekobyte.englishtek.dto.quiz.QuizSubmissionRequest;
 import com.nekobyte.englishtek.dto.quiz.QuizSubmissionResponse;
+import com.nekobyte.englishtek.dto.quiz.QuizSummaryResponse;
 import com.nekobyte.englishtek.model.*;
 import com.nekobyte.englishtek.repository.BadgeRepository;
 import com.nekobyte.englishtek.repository.ChapterRepository;
 import com.nekobyte.englishtek.repository.QuizAttemptRepository;
+import com.nekobyte.englishtek.repository.QuizQuestionRepository;
 import com.nekobyte.englishtek.repository.QuizRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,27 +39,41 @@ public class QuizService {
     private final QuizRepository quizRepository;
     private final ChapterRepository chapterRepository;
     private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizQuestionRepository quizQuestionRepository;
     private final BadgeRepository badgeRepository;
     private final UserService userService;
     private final BadgeService badgeService;
+    private final QuizGrader quizGrader;
+    private final QuizRegradeService quizRegradeService;
+    private final QuizItemStatsService quizItemStatsService;
+    private final QuizDraftService quizDraftService;
+    private final QuizAttemptHistoryService quizAttemptHistoryService;
+    private final ChapterItemOrdering chapterItemOrdering;
+    private final ChapterGraph chapterGraph;
+    private final SearchIndexService searchIndexService;
+    private final LearningPointerService learningPointerService;
     private final ObjectMapper objectMapper;
 
-    public List<QuizResponse> getAllQuizzes() {
+    public List<QuizSummaryResponse> getAllQuizzes() {
         User currentUser = userService.getCurrentUser();
+        Map<Long, QuizAttempt> attempts = quizAttemptRepository.findByUserId(currentUser.getId()).stream()
+                .collect(Collectors.toMap(attempt -> attempt.getQuiz().getId(), attempt -> attempt, (first, second) -> first));
         return quizRepository.findAll().stream()
-                .map(quiz -> mapToResponse(quiz, currentUser))
+                .map(quiz -> mapToSummaryResponse(quiz, attempts.get(quiz.getId())))
                 .collect(Collectors.toList());
     }
 
-    public List<QuizResponse> getQuizzesByChapter(Long chapterId) {
+    public List<QuizSummaryResponse> getQuizzesByChapter(Long chapterId) {
         User currentUser = userService.getCurrentUser();
+        Map<Long, QuizAttempt> attempts = quizAttemptRepository.findByUserIdAndQuiz_Chapter_Id(currentUser.getId(), chapterId).stream()
+                .collect(Collectors.toMap(attempt -> attempt.getQuiz().getId(), attempt -> attempt, (first, second) -> first));
         return quizRepository.findByChapterId(chapterId).stream()
-                .map(quiz -> mapToResponse(quiz, currentUser))
+                .map(quiz -> mapToSummaryResponse(quiz, attempts.get(quiz.getId())))
                 .collect(Collectors.toList());
     }
 
     public QuizResponse getQuiz(Long id) {
-        Quiz quiz = quizRepository.findById(id)
+        Quiz quiz = quizRepository.findWithQuestionsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         User currentUser = userService.getCurrentUser();
         return mapToResponse(quiz, currentUser);
@@ -67,6 +92,7 @@ public class QuizService {
         quiz.setChapter(chapter);
         quiz.setIsRandom(request.getIsRandom() != null ? request.getIsRandom() : false);
         quiz.setNumberOfItems(request.getQuestions().size());
+        quiz.setOrder(chapterItemOrdering.nextOrder(chapter.getId()));
 
         if (request.getBadgeId() != null) {
             Badge badge = badgeRepository.findById(request.getBadgeId())
@@ -83,15 +109,43 @@ public class QuizService {
 
         quiz.setQuestions(questions);
         quiz = quizRepository.save(quiz);
+        chapterGraph.invalidate();
+        searchIndexService.indexQuiz(quiz);
 
         return mapToResponse(quiz, userService.getCurrentUser());
     }
 
     @Transactional
     public QuizResponse updateQuiz(Long id, QuizRequest request) {
-        Quiz quiz = quizRepository.findById(id)
+        Quiz quiz = quizRepository.findWithQuestionsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
 
+        // Match incoming questions to existing rows by id so unchanged questions keep their ids
+        Set<Long> existingIds = quiz.getQuestions().stream()
+                .map(QuizQuestion::getId)
+                .collect(Collectors.toSet());
+        Set<Long> keptIds = new HashSet<>();
+        for (QuizRequest.QuestionRequest questionRequest : request.getQuestions()) {
+            if (questionRequest.getId() == null) {
+                continue;
+            }
+            if (!existingIds.contains(questionRequest.getId())) {
+                throw new IllegalArgumentException("Question with ID " + questionRequest.getId() + " not found in this quiz");
+            }
+            keptIds.add(questionRequest.getId());
+        }
+
+        // Questions that were left out are removed with one statement instead of one delete per row
+        List<Long> removedIds = existingIds.stream()
+                .filter(questionId -> !keptIds.contains(questionId))
+                .collect(Collectors.toList());
+        if (!removedIds.isEmpty()) {
+            quizQuestionRepository.deleteByIdIn(removedIds);
+            // The bulk delete clears the persistence context, so reload the quiz without the removed rows
+            quiz = quizRepository.findWithQuestionsById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        }
+
         Chapter chapter = chapterRepository.findById(request.getChapterId())
                 .orElseThrow(() -> new IllegalArgumentException("Chapter not found"));
 
@@ -111,22 +165,30 @@ public class QuizService {
             quiz.setBadge(null);
         }
 
-        // Properly handle the bidirectional relationship
-        List<QuizQuestion> oldQuestions = new ArrayList<>(quiz.getQuestions());
-        quiz.getQuestions().clear();
-        
-        // Create new questions and maintain bidirectional relationship
+        // Update kept questions in place and append new ones; only dirty rows are written on flush
+        Map<Long, QuizQuestion> existingQuestions = quiz.getQuestions().stream()
+                .collect(Collectors.toMap(QuizQuestion::getId, question -> question));
+        List<Long> regradedIds = new ArrayList<>();
         for (QuizRequest.QuestionRequest questionRequest : request.getQuestions()) {
-            QuizQuestion question = createQuestion(quiz, questionRequest);
-            quiz.getQuestions().add(question);
+            if (questionRequest.getId() == null) {
+                quiz.getQuestions().add(createQuestion(quiz, questionRequest));
+            } else if (applyQuestionChanges(existingQuestions.get(questionRequest.getId()), questionRequest)) {
+                regradedIds.add(questionRequest.getId());
+            }
         }
 
-        // Save the quiz
         quiz = quizRepository.save(quiz);
-        
-        // Now it's safe to remove old questions from the persistence context
-        oldQuestions.clear();
-        
+        // The chapter or max score may have changed
+        chapterGraph.invalidate();
+        searchIndexService.indexQuiz(quiz);
+
+        // Stored scores were computed against the old key; recompute them once this update commits
+        if (!regradedIds.isEmpty() || !removedIds.isEmpty()) {
+            quizRegradeService.startRegrade(quiz.getId());
+            regradedIds.addAll(removedIds);
+            quizItemStatsService.resetQuestions(regradedIds);
+        }
+
         return mapToResponse(quiz, userService.getCurrentUser());
     }
 
@@ -139,13 +201,18 @@ public class QuizService {
         if (quiz.getBadge() != null) {
             badgeService.deleteBadge(quiz.getBadge().getId());
         }
-        
+
+        quizItemStatsService.resetQuestions(quiz.getQuestions().stream()
+                .map(QuizQuestion::getId)
+                .collect(Collectors.toList()));
         quizRepository.delete(quiz);
+        chapterGraph.invalidate();
+        searchIndexService.remove("quiz", id);
     }
 
     @Transactional
     public QuizResponse startQuiz(Long id) {
-        Quiz quiz = quizRepository.findById(id)
+        Quiz quiz = quizRepository.findWithQuestionsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         User currentUser = userService.getCurrentUser();
 
@@ -158,9 +225,17 @@ public class QuizService {
         if (existingAttempt != null && existingAttempt.getCompletedAt() != null) {
             // Check if eligible for retake (score < maxScore)
             if (existingAttempt.getScore() < quiz.getMaxScore()) {
-                // Delete old attempt
-                quizAttemptRepository.delete(existingAttempt);
-                existingAttempt = null;
+                // Reuse the row for the retake; the finished attempt is already kept in the history table
+                quizDraftService.discard(existingAttempt.getId());
+                existingAttempt.setScore(0);
+                existingAttempt.setAnswers(null);
+                existingAttempt.setQuestionOrder(null);
+                existingAttempt.setDraftAnswers(null);
+                existingAttempt.setDraftSavedAt(null);
+                existingAttempt.setStartedAt(LocalDateTime.now());
+                existingAttempt.setCompletedAt(null);
+                // The quiz may have counted as completed; the continue pointer is recomputed on next read
+                learningPointerService.reset(currentUser.getId());
             } else {
                 throw new IllegalStateException("Quiz already completed with maximum score");
             }
@@ -172,27 +247,43 @@ public class QuizService {
             existingAttempt.setQuiz(quiz);
             existingAttempt.setUser(currentUser);
             existingAttempt.setStartedAt(LocalDateTime.now());
-            quizAttemptRepository.save(existingAttempt);
         }
 
         // Map quiz to response
         QuizResponse response = mapToResponse(quiz, currentUser);
 
-        // If isRandom is true, shuffle the questions
+        // If isRandom is true, shuffle the questions once per attempt and serve that order on every resume
         if (quiz.getIsRandom()) {
-            Collections.shuffle(response.getQuestions());
+            List<Long> questionOrder = decodeQuestionOrder(existingAttempt.getQuestionOrder());
+            if (questionOrder == null) {
+                questionOrder = response.getQuestions().stream()
+                        .map(QuizResponse.QuestionResponse::getId)
+                        .collect(Collectors.toList());
+                Collections.shuffle(questionOrder);
+                existingAttempt.setQuestionOrder(encodeQuestionOrder(questionOrder));
+            }
+
+            // Questions added after the attempt started go last
+            Map<Long, Integer> positions = new HashMap<>();
+            for (int i = 0; i < questionOrder.size(); i++) {
+                positions.put(questionOrder.get(i), i);
+            }
+            response.getQuestions().sort(Comparator.comparing(question -> positions.getOrDefault(question.getId(), Integer.MAX_VALUE)));
             // Update page numbers after shuffling
             for (int i = 0; i < response.getQuestions().size(); i++) {
                 response.getQuestions().get(i).setPage(i + 1);
             }
         }
 
+        existingAttempt = quizAttemptRepository.save(existingAttempt);
+        response.setSavedAnswers(quizDraftService.getAnswers(existingAttempt));
+
         return response;
     }
 
     @Transactional
     public QuizSubmissionResponse submitQuiz(Long id, QuizSubmissionRequest request) {
-        Quiz quiz = quizRepository.findById(id)
+        Quiz quiz = quizRepository.findWithQuestionsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         User currentUser = userService.getCurrentUser();
 
@@ -221,22 +312,42 @@ public class QuizService {
                     return newAttempt;
                 });
 
-        attempt.setScore(request.getScore());
+        // Grade on the server when answers are sent, and keep them so the attempt can be re-graded later
+        int score = request.getScore();
+        if (request.getAnswers() != null && !request.getAnswers().isEmpty()) {
+            Map<Long, String> answers = quizGrader.toAnswers(request.getAnswers());
+            Set<Long> correctQuestionIds = quizGrader.correctQuestionIds(
+                    quizGrader.compileAnswerKeys(quiz.getQuestions()), answers);
+            score = quizGrader.score(correctQuestionIds.size(), quiz.getQuestions().size(), quiz.getMaxScore());
+            attempt.setAnswers(quizGrader.encodeAnswers(answers));
+            quizItemStatsService.record(quiz, answers, correctQuestionIds, score);
+        }
+
+        attempt.setScore(score);
         attempt.setCompletedAt(LocalDateTime.now());
+        attempt.setDraftAnswers(null);
+        quizDraftService.discard(attempt.getId());
 
         // Award badge if score is at least 80% of max score and quiz has a badge
         boolean badgeAwarded = false;
-        if (request.getScore() >= (quiz.getMaxScore() * 0.8) && quiz.getBadge() != null) {
+        if (score >= (quiz.getMaxScore() * 0.8) && quiz.getBadge() != null) {
             userService.addBadgeToUser(currentUser, quiz.getBadge());
             badgeAwarded = true;
         }
 
         attempt = quizAttemptRepository.save(attempt);
+        quizAttemptHistoryService.record(attempt, quiz);
+        if (score >= (quiz.getMaxScore() * 0.8)) {
+            learningPointerService.itemCompleted(currentUser.getId(), "quiz", id);
+        } else {
+            // An admin resubmission can drop a passed quiz below the threshold
+            learningPointerService.reset(currentUser.getId());
+        }
 
         return QuizSubmissionResponse.builder()
-                .score(request.getScore())
+                .score(score)
                 .maxScore(quiz.getMaxScore())
-                .isEligibleForRetake(request.getScore() < (quiz.getMaxScore() * 0.8))
+                .isEligibleForRetake(score < (quiz.getMaxScore() * 0.8))
                 .isEligibleForBadge(!badgeAwarded && quiz.getBadge() != null)
                 .badge(quiz.getBadge() != null ? BadgeResponse.builder()
                         .id(quiz.getBadge().getId())
@@ -270,6 +381,26 @@ public class QuizService {
                 .build();
     }
 
+    // List views only need the quiz row; questions and choices are never touched here
+    private QuizSummaryResponse mapToSummaryResponse(Quiz quiz, QuizAttempt attempt) {
+        boolean completed = attempt != null
+                && attempt.getCompletedAt() != null
+                && attempt.getScore() >= (quiz.getMaxScore() * 0.8);
+
+        return QuizSummaryResponse.builder()
+                .id(quiz.getId())
+                .chapterId(quiz.getChapter().getId())
+                .title(quiz.getTitle())
+                .description(quiz.getDescription())
+                .difficulty(quiz.getDifficulty())
+                .maxScore(quiz.getMaxScore())
+                .numberOfItems(quiz.getNumberOfItems())
+                .badgeId(quiz.getBadge() != null ? quiz.getBadge().getId() : null)
+                .isRandom(quiz.getIsRandom())
+                .completed(completed)
+                .build();
+    }
+
     private boolean isQuizCompletedByUser(Quiz quiz, User user) {
         return quizAttemptRepository.findByUserIdAndQuizId(user.getId(), quiz.getId())
                 .map(attempt -> {
@@ -288,6 +419,7 @@ public class QuizService {
                 .title(question.getTitle())
                 .choices(question.getChoices())
                 .correctAnswer(parseCorrectAnswer(question.getCorrectAnswer()))
+                .maxEdits(question.getMaxEdits())
                 .build();
     }
 
@@ -305,13 +437,75 @@ public class QuizService {
         }
     }
 
-    private QuizQuestion createQuestion(Quiz quiz, QuizRequest.QuestionRequest questionRequest) {
+    // userId is null for the current user's own history
+    public List<QuizAttemptHistoryResponse> getAttemptHistory(Long userId, Long quizId, LocalDate from, LocalDate to) {
+        Long targetUserId = userId != null ? userId : userService.getCurrentUser().getId();
+        return quizAttemptHistoryService.getHistory(targetUserId, quizId, from, to);
+    }
+
+    private List<Long> decodeQuestionOrder(String questionOrder) {
+        if (questionOrder == null) {
+            return null;
+        }
+        try {
+            return new ArrayList<>(objectMapper.readValue(questionOrder, new TypeReference<List<Long>>() {}));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse question order: " + e.getMessage(), e);
+        }
+    }
+
+    private String encodeQuestionOrder(List<Long> questionOrder) {
+        try {
+            return objectMapper.writeValueAsString(questionOrder);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize question order: " + e.getMessage(), e);
+        }
+    }
+
+    QuizQuestion createQuestion(Quiz quiz, QuizRequest.QuestionRequest questionRequest) {
         QuizQuestion question = new QuizQuestion();
         question.setQuiz(quiz);
         question.setPage(questionRequest.getPage());
         question.setType(questionRequest.getType());
         question.setTitle(questionRequest.getTitle());
         question.setChoices(questionRequest.getChoices());
+        question.setCorrectAnswer(serializeCorrectAnswer(questionRequest));
+        question.setMaxEdits(questionRequest.getMaxEdits() != null ? questionRequest.getMaxEdits() : 0);
+        return question;
+    }
+
+    // Returns true when the change affects grading (question type, answer key or typo tolerance)
+    private boolean applyQuestionChanges(QuizQuestion question, QuizRequest.QuestionRequest questionRequest) {
+        boolean gradingChanged = false;
+
+        // Only touch fields that actually changed so Hibernate leaves untouched rows alone
+        if (!Objects.equals(question.getPage(), questionRequest.getPage())) {
+            question.setPage(questionRequest.getPage());
+        }
+        if (!Objects.equals(question.getType(), questionRequest.getType())) {
+            question.setType(questionRequest.getType());
+            gradingChanged = true;
+        }
+        if (!Objects.equals(question.getTitle(), questionRequest.getTitle())) {
+            question.setTitle(questionRequest.getTitle());
+        }
+        if (!Objects.equals(question.getChoices(), questionRequest.getChoices())) {
+            question.setChoices(new ArrayList<>(questionRequest.getChoices()));
+        }
+        String correctAnswer = serializeCorrectAnswer(questionRequest);
+        if (!Objects.equals(question.getCorrectAnswer(), correctAnswer)) {
+            question.setCorrectAnswer(correctAnswer);
+            gradingChanged = true;
+        }
+        int maxEdits = questionRequest.getMaxEdits() != null ? questionRequest.getMaxEdits() : 0;
+        if (!Objects.equals(question.getMaxEdits(), maxEdits)) {
+            question.setMaxEdits(maxEdits);
+            gradingChanged = true;
+        }
+        return gradingChanged;
+    }
+
+    private String serializeCorrectAnswer(QuizRequest.QuestionRequest questionRequest) {
         try {
             // For multiple_choice, correctAnswer should be a List<String>
             // For identification, correctAnswer should be a String
@@ -324,10 +518,9 @@ public class QuizService {
                     throw new IllegalArgumentException("Identification questions must have a single correct answer");
                 }
             }
-            question.setCorrectAnswer(objectMapper.writeValueAsString(questionRequest.getCorrectAnswer()));
+            return objectMapper.writeValueAsString(questionRequest.getCorrectAnswer());
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid correct answer format: " + e.getMessage());
         }
-        return question;
     }
 }
@@ -22,6 +22,7 @@ public class ReportService {
     private final QuizAttemptRepository quizAttemptRepository;
     private final FeedbackRepository feedbackRepository;
     private final UserRepository userRepository;
+    private final QuizAttemptHistoryService quizAttemptHistoryService;
     @Autowired
     private HtmlPdfConverter htmlPdfConverter;
 
@@ -139,6 +140,9 @@ public class ReportService {
             .filter(chapter -> !completedChapterIds.contains(chapter.getId()))
             .collect(Collectors.toList()), user.getId(), false);
 
+        // Quiz attempt history for the last year, including retakes
+        appendAttemptHistory(report, user.getId(), formatter);
+
         // Feedback Reports
         report.append("<h2>Feedback Reports</h2>\n");
         List<Feedback> feedbacks = feedbackRepository.findByUserId(user.getId());
@@ -261,6 +265,31 @@ public class ReportService {
         }
     }
 
+    private void appendAttemptHistory(StringBuilder report, Long userId, DateTimeFormatter formatter) {
+        report.append("<h2>Quiz Attempt History</h2>\n");
+        LocalDateTime now = LocalDateTime.now();
+        List<QuizAttemptHistory> history = quizAttemptHistoryService.findHistory(userId, null, now.minusYears(1), now);
+        if (history.isEmpty()) {
+            report.append("<div class=\"info-box\">")
+                  .append("<p><em>No quiz attempts in the last year</em></p>")
+                  .append("</div>\n");
+            return;
+        }
+
+        report.append("<div class=\"info-box\">\n")
+              .append("<table class=\"progress-table\">\n")
+              .append("<tr><th>Item</th><th>Title</th><th>Completed</th><th>Score</th></tr>\n");
+        for (QuizAttemptHistory attempt : history) {
+            report.append("<tr>\n")
+                  .append("  <td class=\"item-cell\">Quiz</td>\n")
+                  .append("  <td class=\"title-cell\">").append(attempt.getQuizTitle()).append("</td>\n")
+                  .append("  <td>").append(attempt.getCompletedAt().format(formatter)).append("</td>\n")
+                  .append("  <td>").append(attempt.getScore()).append("/").append(attempt.getNumberOfItems()).append("</td>\n")
+                  .append("</tr>\n");
+        }
+        report.append("</table>\n</div>\n\n");
+    }
+
     private boolean isChapterCompleted(Chapter chapter, Long userId) {
         // Check if all lessons are completed
         boolean lessonsCompleted = chapter.getLessons().stream()
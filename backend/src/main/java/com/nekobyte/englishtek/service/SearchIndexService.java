@@ -0,0 +1,414 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.search.SearchResultResponse;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Lesson;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.util.FuzzyMatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-process full-text index over chapters (title, description), lessons (title, description, pages)
+ * and quizzes (title, description, question text). Each term maps to parallel int arrays of doc ids and
+ * term frequencies; results are ranked with BM25 and every query term also matches indexed terms it is
+ * a prefix of. Service writes update the index after their transaction commits, and the whole index is
+ * rebuilt from the database at startup, reading chapters in parallel.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Title terms count this many times, so title hits outrank body hits
+    private static final int TITLE_WEIGHT = 3;
+    // Score multiplier for terms matched by prefix rather than exactly
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    // Longer tokens are almost always base64 or URLs
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final Pattern MARKUP = Pattern.compile("<[^>]*>|data:\\S+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\p{P}\\p{S}]+");
+
+    private final ChapterRepository chapterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // Updates applied while a rebuild runs, replayed onto the rebuilt index before it is swapped in
+    private List<Consumer<Index>> replay;
+
+    public void indexChapter(Chapter chapter) {
+        Document document = chapterDocument(chapter);
+        apply(current -> current.add(document));
+    }
+
+    public void indexLesson(Lesson lesson) {
+        Document document = lessonDocument(lesson);
+        apply(current -> current.add(document));
+    }
+
+    public void indexQuiz(Quiz quiz) {
+        Document document = quizDocument(quiz);
+        apply(current -> current.add(document));
+    }
+
+    public void remove(String type, Long id) {
+        apply(current -> current.remove(type + ":" + id));
+    }
+
+    // Removes the chapter and everything in it
+    public void removeChapter(Long chapterId) {
+        apply(current -> current.removeChapter(chapterId));
+    }
+
+    // Re-reads one chapter with its lessons and quizzes, e.g. after an import committed in several transactions
+    public void reindexChapter(Long chapterId) {
+        List<Document> documents = readOnly().execute(status -> loadChapterDocuments(chapterId));
+        apply(current -> {
+            current.removeChapter(chapterId);
+            documents.forEach(current::add);
+        });
+    }
+
+    public List<SearchResultResponse> search(String query, String type, int limit) {
+        if (type != null && !List.of("chapter", "lesson", "quiz").contains(type)) {
+            throw new IllegalArgumentException("Invalid type: " + type);
+        }
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Index current = index;
+            double averageLength = current.liveDocs > 0 ? (double) current.totalLength / current.liveDocs : 1;
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String token : tokens) {
+                for (Map.Entry<String, Postings> entry : current.expand(token)) {
+                    double weight = entry.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT;
+                    Postings postings = entry.getValue();
+                    double idf = Math.log(1 + (current.liveDocs - postings.size + 0.5) / (postings.size + 0.5));
+                    for (int i = 0; i < postings.size; i++) {
+                        DocInfo doc = current.docs.get(postings.docs[i]);
+                        if (doc == null || (type != null && !type.equals(doc.type))) {
+                            continue;
+                        }
+                        double tf = postings.freqs[i];
+                        double score = weight * idf * tf * (K1 + 1)
+                                / (tf + K1 * (1 - B + B * doc.length / averageLength));
+                        scores.merge(postings.docs[i], score, Double::sum);
+                    }
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+                    .limit(Math.max(1, Math.min(limit, 100)))
+                    .map(entry -> {
+                        DocInfo doc = current.docs.get(entry.getKey());
+                        return SearchResultResponse.builder()
+                                .type(doc.type)
+                                .id(doc.id)
+                                .chapterId(doc.chapterId)
+                                .title(doc.title)
+                                .score(entry.getValue())
+                                .build();
+                    })
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        try {
+            // Loading and tokenizing run per chapter in parallel; postings are then appended on this thread
+            List<Future<List<Document>>> futures = new ArrayList<>();
+            for (Long chapterId : chapterRepository.findAllIds()) {
+                futures.add(pool.submit(() -> readOnly().execute(status -> loadChapterDocuments(chapterId))));
+            }
+            for (Future<List<Document>> future : futures) {
+                future.get().forEach(rebuilt::add);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to rebuild search index: " + e.getMessage());
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        } finally {
+            pool.shutdown();
+        }
+
+        lock.writeLock().lock();
+        try {
+            replay.forEach(update -> update.accept(rebuilt));
+            replay = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Search index rebuilt with " + rebuilt.liveDocs + " documents and " + rebuilt.terms.size()
+                + " terms in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void apply(Consumer<Index> update) {
+        Runnable task = () -> {
+            lock.writeLock().lock();
+            try {
+                update.accept(index);
+                if (replay != null) {
+                    replay.add(update);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private List<Document> loadChapterDocuments(Long chapterId) {
+        Chapter chapter = chapterRepository.findById(chapterId).orElse(null);
+        if (chapter == null) {
+            return List.of();
+        }
+        List<Document> documents = new ArrayList<>();
+        documents.add(chapterDocument(chapter));
+        chapter.getLessons().forEach(lesson -> documents.add(lessonDocument(lesson)));
+        chapter.getQuizzes().forEach(quiz -> documents.add(quizDocument(quiz)));
+        return documents;
+    }
+
+    private static Document chapterDocument(Chapter chapter) {
+        return new Document("chapter", chapter.getId(), chapter.getId(), chapter.getTitle(), List.of(
+                Objects.toString(chapter.getDescription(), "")));
+    }
+
+    private static Document lessonDocument(Lesson lesson) {
+        List<String> body = new ArrayList<>();
+        body.add(Objects.toString(lesson.getDescription(), ""));
+        if (lesson.getContent() != null) {
+            body.addAll(lesson.getContent());
+        }
+        return new Document("lesson", lesson.getId(), lesson.getChapter().getId(), lesson.getTitle(), body);
+    }
+
+    private static Document quizDocument(Quiz quiz) {
+        List<String> body = new ArrayList<>();
+        body.add(Objects.toString(quiz.getDescription(), ""));
+        if (quiz.getQuestions() != null) {
+            quiz.getQuestions().stream().map(QuizQuestion::getTitle).forEach(body::add);
+        }
+        return new Document("quiz", quiz.getId(), quiz.getChapter().getId(), quiz.getTitle(), body);
+    }
+
+    // Markup and punctuation become separators; accents are folded and text lowercased as in answer matching
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String plain = SEPARATORS.matcher(MARKUP.matcher(text).replaceAll(" ")).replaceAll(" ");
+        String normalized = FuzzyMatcher.normalize(plain);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(normalized.split(" "))
+                .filter(token -> token.length() <= MAX_TOKEN_LENGTH)
+                .collect(Collectors.toList());
+    }
+
+    private static class Document {
+        private final String type;
+        private final Long id;
+        private final Long chapterId;
+        private final String title;
+        private final Map<String, Integer> terms = new HashMap<>();
+        private int length;
+
+        Document(String type, Long id, Long chapterId, String title, List<String> body) {
+            this.type = type;
+            this.id = id;
+            this.chapterId = chapterId;
+            this.title = title;
+            tokenize(title).forEach(token -> count(token, TITLE_WEIGHT));
+            body.forEach(text -> tokenize(text).forEach(token -> count(token, 1)));
+        }
+
+        private void count(String token, int weight) {
+            terms.merge(token, weight, Integer::sum);
+            length += weight;
+        }
+
+        String key() {
+            return type + ":" + id;
+        }
+    }
+
+    private static class DocInfo {
+        private final String type;
+        private final Long id;
+        private final Long chapterId;
+        private final String title;
+        private final int length;
+
+        DocInfo(Document document) {
+            this.type = document.type;
+            this.id = document.id;
+            this.chapterId = document.chapterId;
+            this.title = document.title;
+            this.length = document.length;
+        }
+    }
+
+    // Doc ids and frequencies in ascending doc id order, grown by doubling
+    private static class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    /**
+     * Doc ids are only ever appended, so every postings list stays sorted. A removed document leaves a
+     * null slot that searches skip; once removed documents outnumber live ones the postings are compacted.
+     */
+    private static class Index {
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<String, Integer> docIds = new HashMap<>();
+        private final List<DocInfo> docs = new ArrayList<>();
+        private int liveDocs;
+        private long totalLength;
+        private int removedDocs;
+
+        void add(Document document) {
+            remove(document.key());
+            int doc = docs.size();
+            docs.add(new DocInfo(document));
+            docIds.put(document.key(), doc);
+            document.terms.forEach((term, freq) -> terms.computeIfAbsent(term, t -> new Postings()).add(doc, freq));
+            liveDocs++;
+            totalLength += document.length;
+        }
+
+        void remove(String key) {
+            Integer doc = docIds.remove(key);
+            if (doc == null) {
+                return;
+            }
+            DocInfo info = docs.set(doc, null);
+            liveDocs--;
+            totalLength -= info.length;
+            removedDocs++;
+            if (removedDocs > 1000 && removedDocs > liveDocs) {
+                compact();
+            }
+        }
+
+        void removeChapter(Long chapterId) {
+            List<String> keys = new ArrayList<>();
+            for (DocInfo info : docs) {
+                if (info != null && chapterId.equals(info.chapterId)) {
+                    keys.add(info.type + ":" + info.id);
+                }
+            }
+            keys.forEach(this::remove);
+        }
+
+        // The exact term first, then up to MAX_PREFIX_EXPANSIONS longer terms starting with it
+        List<Map.Entry<String, Postings>> expand(String token) {
+            if (token.length() < 2) {
+                Postings exact = terms.get(token);
+                return exact != null ? List.of(Map.entry(token, exact)) : Collections.emptyList();
+            }
+            return terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet().stream()
+                    .limit(MAX_PREFIX_EXPANSIONS + 1L)
+                    .collect(Collectors.toList());
+        }
+
+        private void compact() {
+            Set<String> emptyTerms = new LinkedHashSet<>();
+            terms.forEach((term, postings) -> {
+                int kept = 0;
+                for (int i = 0; i < postings.size; i++) {
+                    if (docs.get(postings.docs[i]) != null) {
+                        postings.docs[kept] = postings.docs[i];
+                        postings.freqs[kept] = postings.freqs[i];
+                        kept++;
+                    }
+                }
+                postings.size = kept;
+                if (kept == 0) {
+                    emptyTerms.add(term);
+                }
+            });
+            emptyTerms.forEach(terms::remove);
+            removedDocs = 0;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.dto.user.UserSearchResponse;
+import com.nekobyte.englishtek.model.User;
+import com.nekobyte.englishtek.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index over username, name and email for the admin user search. Queries of three or more
+ * characters match anywhere in a field: the postings of the query's trigrams are intersected and the
+ * candidates checked against the text. Shorter queries match the start of the username, the email,
+ * its local part or any name word through a sorted token map. Postings are sorted int arrays of slots;
+ * an updated user gets a new slot and the old one is skipped until the index is compacted.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSearchService {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+    private final TreeMap<String, Postings> tokens = new TreeMap<>();
+    private final List<Entry> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private int removedSlots;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        // Held for the whole load so commits that land meanwhile are applied after it, not overwritten by it
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (Object[] row : userRepository.findSearchRows()) {
+                add(new Entry((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (User.Role) row[4], (String) row[5]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("User search index loaded " + slotsById.size() + " users in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Called after a user is created or edited; applied once the transaction commits
+    public void index(User user) {
+        Entry entry = new Entry(user.getId(), user.getUsername(), user.getName(), user.getEmail(), user.getRole(), user.getAvatar());
+        afterCommit(() -> {
+            remove(entry.id);
+            add(entry);
+        });
+    }
+
+    public void remove(User user) {
+        Long id = user.getId();
+        afterCommit(() -> remove(id));
+    }
+
+    public UserSearchResponse search(String query, int page, int size) {
+        String q = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        if (q.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = q.length() >= 3 ? infixMatches(q) : prefixMatches(q);
+            // Username prefix hits first, then other prefix hits, then matches inside a field
+            matches.sort(Comparator.comparingInt((Entry entry) -> entry.rank(q)).thenComparing(entry -> entry.username));
+
+            List<UserSearchResponse.Hit> users = matches.stream()
+                    .skip((long) page * pageSize)
+                    .limit(pageSize)
+                    .map(entry -> UserSearchResponse.Hit.builder()
+                            .id(entry.id)
+                            .username(entry.username)
+                            .name(entry.name)
+                            .email(entry.email)
+                            .role(entry.role)
+                            .avatarUrl(entry.avatar != null ? "/api/v1/files/" + entry.avatar : null)
+                            .build())
+                    .collect(Collectors.toList());
+
+            return UserSearchResponse.builder()
+                    .users(users)
+                    .page(page)
+                    .size(pageSize)
+                    .total(matches.size())
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Entry> infixMatches(String q) {
+        List<Postings> lists = new ArrayList<>();
+        for (String trigram : trigramsOf(q)) {
+            Postings postings = trigrams.get(trigram);
+            if (postings == null) {
+                return new ArrayList<>();
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+
+        // Walk the shortest list and binary-search the rest; trigrams can match out of order, so verify
+        List<Entry> matches = new ArrayList<>();
+        Postings shortest = lists.get(0);
+        outer:
+        for (int i = 0; i < shortest.size; i++) {
+            int slot = shortest.values[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (Arrays.binarySearch(lists.get(j).values, 0, lists.get(j).size, slot) < 0) {
+                    continue outer;
+                }
+            }
+            Entry entry = slots.get(slot);
+            if (entry != null && entry.contains(q)) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    private List<Entry> prefixMatches(String q) {
+        Set<Entry> matches = new LinkedHashSet<>();
+        for (Postings postings : tokens.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                Entry entry = slots.get(postings.values[i]);
+                if (entry != null) {
+                    matches.add(entry);
+                }
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    private void afterCommit(Runnable update) {
+        Runnable task = () -> {
+            lock.writeLock().lock();
+            try {
+                update.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(Entry entry) {
+        int slot = slots.size();
+        slots.add(entry);
+        slotsById.put(entry.id, slot);
+        for (String field : entry.fields()) {
+            for (String trigram : trigramsOf(field)) {
+                trigrams.computeIfAbsent(trigram, t -> new Postings()).add(slot);
+            }
+        }
+        for (String token : entry.tokens) {
+            tokens.computeIfAbsent(token, t -> new Postings()).add(slot);
+        }
+    }
+
+    private void remove(Long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        slots.set(slot, null);
+        removedSlots++;
+        if (removedSlots > 1000 && removedSlots > slotsById.size()) {
+            List<Entry> live = slots.stream().filter(entry -> entry != null).collect(Collectors.toList());
+            clear();
+            live.forEach(this::add);
+        }
+    }
+
+    private void clear() {
+        trigrams.clear();
+        tokens.clear();
+        slots.clear();
+        slotsById.clear();
+        removedSlots = 0;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(text.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static class Entry {
+        private final Long id;
+        private final String username;
+        private final String name;
+        private final String email;
+        private final User.Role role;
+        private final String avatar;
+        private final String usernameKey;
+        private final String nameKey;
+        private final String emailKey;
+        private final Set<String> tokens;
+
+        Entry(Long id, String username, String name, String email, User.Role role, String avatar) {
+            this.id = id;
+            this.username = username;
+            this.name = name;
+            this.email = email;
+            this.role = role;
+            this.avatar = avatar;
+            this.usernameKey = lower(username);
+            this.nameKey = lower(name);
+            this.emailKey = lower(email);
+            this.tokens = tokens();
+        }
+
+        List<String> fields() {
+            return List.of(usernameKey, nameKey, emailKey);
+        }
+
+        // Username, email, email local part and each name word
+        private Set<String> tokens() {
+            Set<String> result = new LinkedHashSet<>();
+            result.add(usernameKey);
+            result.add(emailKey);
+            int at = emailKey.indexOf('@');
+            if (at > 0) {
+                result.add(emailKey.substring(0, at));
+            }
+            for (String word : nameKey.split("\\s+")) {
+                result.add(word);
+            }
+            result.remove("");
+            return result;
+        }
+
+        boolean contains(String q) {
+            return usernameKey.contains(q) || nameKey.contains(q) || emailKey.contains(q);
+        }
+
+        int rank(String q) {
+            if (usernameKey.startsWith(q)) {
+                return 0;
+            }
+            return tokens.stream().anyMatch(token -> token.startsWith(q)) ? 1 : 2;
+        }
+    }
+
+    // Slots in ascending order, since slots are only ever appended
+    private static class Postings {
+        private int[] values = new int[2];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && values[size - 1] == slot) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = slot;
+        }
+    }
+}
@@ -12,7 +12,9 @@ import com.nekobyte.englishtek.model.Quiz;
 import com.nekobyte.englishtek.model.User;
 import com.nekobyte.englishtek.repository.BadgeRepository;
 import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.LearningPointerRepository;
 import com.nekobyte.englishtek.repository.LessonAttemptRepository;
+import com.nekobyte.englishtek.repository.LessonProgressRepository;
 import com.nekobyte.englishtek.repository.QuizAttemptRepository;
 import com.nekobyte.englishtek.repository.UserBadgeRepository;
 import com.nekobyte.englishtek.repository.UserRepository;
@@ -46,6 +48,9 @@ public class UserService {
     private final UserBadgeRepository userBadgeRepository;
     private final UserBadgeService userBadgeService;
     private final ChapterRepository chapterRepository;
+    private final LearningPointerRepository learningPointerRepository;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final UserSearchService userSearchService;
 
     public User getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -113,6 +118,7 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        userSearchService.index(user);
 
         // Get updated stats for response
         int completedLessons = lessonAttemptRepository.countByUserIdAndCompletedAtIsNotNull(user.getId());
@@ -138,6 +144,7 @@ public class UserService {
     public void deleteCurrentUser() {
         User user = getCurrentUser();
         userRepository.delete(user);
+        userSearchService.remove(user);
     }
 
     @Transactional
@@ -325,6 +332,7 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        userSearchService.index(user);
         return mapUserToResponse(user);
     }
 
@@ -337,8 +345,11 @@ public class UserService {
         lessonAttemptRepository.deleteByUserId(id);
         quizAttemptRepository.deleteByUserId(id);
         userBadgeRepository.deleteByUserId(id);
+        learningPointerRepository.deleteByUserId(id);
+        lessonProgressRepository.deleteByUserId(id);
         
         userRepository.delete(user);
+        userSearchService.remove(user);
     }
 
     @Transactional
@@ -380,6 +391,7 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        userSearchService.index(user);
 
         // Get updated stats for response
         int completedLessons = lessonAttemptRepository.countByUserIdAndCompletedAtIsNotNull(user.getId());
@@ -0,0 +1,61 @@
+package com.nekobyte.englishtek.storage;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Where uploaded files live. Keys are flat file names (content hashes, image variants and older UUID
+ * names); how they are laid out is up to the implementation.
+ */
+public interface FileStore {
+    /**
+     * Stores a fully written local file under the key, replacing any existing content. The source may be
+     * moved rather than copied; callers delete it afterwards if it is still there.
+     */
+    void store(String key, Path source) throws IOException;
+
+    // Throws NoSuchFileException when the key does not exist
+    InputStream open(String key) throws IOException;
+
+    boolean delete(String key) throws IOException;
+
+    // Null when the key does not exist
+    FileStat stat(String key) throws IOException;
+
+    // Path on the local disk for zero-copy reads, or null when the store is not disk-backed
+    Path localPath(String key) throws IOException;
+
+    void list(Consumer<FileStat> consumer) throws IOException;
+
+    // Whether stored files survive a restart; nothing that exists only once may be moved into a store that is not
+    default boolean isDurable() {
+        return true;
+    }
+
+    // Keys end up in paths and URLs, so anything that could escape a directory is rejected
+    static String checkKey(String key) {
+        if (key == null || key.isEmpty() || key.length() > 255 || key.startsWith(".")
+                || key.contains("/") || key.contains("\\") || key.chars().anyMatch(c -> c < 0x20)) {
+            throw new IllegalArgumentException("Invalid file name " + key);
+        }
+        return key;
+    }
+
+    @Getter
+    class FileStat {
+        private final String key;
+        private final long size;
+        private final Instant lastModified;
+
+        public FileStat(String key, long size, Instant lastModified) {
+            this.key = key;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
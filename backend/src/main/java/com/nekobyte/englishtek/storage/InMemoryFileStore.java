@@ -0,0 +1,68 @@
+package com.nekobyte.englishtek.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps files on the heap; for tests and throwaway local runs only.
+ */
+public class InMemoryFileStore implements FileStore {
+    private final ConcurrentHashMap<String, Entry> files = new ConcurrentHashMap<>();
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        files.put(FileStore.checkKey(key), new Entry(Files.readAllBytes(source), Instant.now()));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Entry entry = files.get(key);
+        if (entry == null) {
+            throw new NoSuchFileException(key);
+        }
+        return new ByteArrayInputStream(entry.data);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return files.remove(key) != null;
+    }
+
+    @Override
+    public FileStat stat(String key) {
+        Entry entry = files.get(key);
+        return entry != null ? new FileStat(key, entry.data.length, entry.modified) : null;
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public void list(Consumer<FileStat> consumer) {
+        files.forEach((key, entry) -> consumer.accept(new FileStat(key, entry.data.length, entry.modified)));
+    }
+
+    @Override
+    public boolean isDurable() {
+        return false;
+    }
+
+    private static class Entry {
+        private final byte[] data;
+        private final Instant modified;
+
+        Entry(byte[] data, Instant modified) {
+            this.data = data;
+            this.modified = modified;
+        }
+    }
+}
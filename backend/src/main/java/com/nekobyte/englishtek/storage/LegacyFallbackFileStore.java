@@ -0,0 +1,122 @@
+package com.nekobyte.englishtek.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Wraps the configured store and still finds files written before it existed, which sit directly in the
+ * upload directory. New files only go to the wrapped store; {@link #migrate} moves old ones over.
+ */
+public class LegacyFallbackFileStore implements FileStore {
+    private final FileStore target;
+    private final Path legacyRoot;
+
+    public LegacyFallbackFileStore(FileStore target, Path legacyRoot) {
+        this.target = target;
+        this.legacyRoot = legacyRoot;
+    }
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        target.store(key, source);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return target.open(key);
+        } catch (NoSuchFileException e) {
+            Path legacy = legacyPath(key);
+            if (!Files.isRegularFile(legacy)) {
+                throw e;
+            }
+            return Files.newInputStream(legacy);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        boolean deleted = target.delete(key);
+        return Files.deleteIfExists(legacyPath(key)) || deleted;
+    }
+
+    @Override
+    public FileStat stat(String key) throws IOException {
+        FileStat stat = target.stat(key);
+        if (stat != null) {
+            return stat;
+        }
+        Path legacy = legacyPath(key);
+        if (!Files.isRegularFile(legacy)) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(legacy, BasicFileAttributes.class);
+        return new FileStat(key, attributes.size(), attributes.lastModifiedTime().toInstant());
+    }
+
+    @Override
+    public Path localPath(String key) throws IOException {
+        Path path = target.localPath(key);
+        if (path != null) {
+            return path;
+        }
+        Path legacy = legacyPath(key);
+        return Files.isRegularFile(legacy) ? legacy : null;
+    }
+
+    @Override
+    public void list(Consumer<FileStat> consumer) throws IOException {
+        target.list(consumer);
+        for (String key : legacyKeys()) {
+            FileStat stat = stat(key);
+            if (stat != null) {
+                consumer.accept(stat);
+            }
+        }
+    }
+
+    @Override
+    public boolean isDurable() {
+        return target.isDurable();
+    }
+
+    // Files still in the flat layout; temp files start with a dot and shard directories are not files
+    public List<String> legacyKeys() throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(legacyRoot)) {
+            paths.filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.startsWith("."))
+                    .forEach(keys::add);
+        }
+        return keys;
+    }
+
+    // Moves one flat file into the wrapped store; false if it was already gone
+    public boolean migrate(String key) throws IOException {
+        if (!target.isDurable()) {
+            throw new IllegalStateException("Refusing to move " + key + " into a store that does not survive a restart");
+        }
+        Path legacy = legacyPath(key);
+        if (!Files.isRegularFile(legacy)) {
+            return false;
+        }
+        if (target.stat(key) == null) {
+            target.store(key, legacy);
+        }
+        Files.deleteIfExists(legacy);
+        return true;
+    }
+
+    private Path legacyPath(String key) {
+        return legacyRoot.resolve(FileStore.checkKey(key));
+    }
+}
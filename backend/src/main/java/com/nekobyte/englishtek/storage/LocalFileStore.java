@@ -0,0 +1,109 @@
+package com.nekobyte.englishtek.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Files on local disk under two levels of hash-prefix directories, e.g. {@code ab/cd/abcd1234...png},
+ * so no directory grows past a few thousand entries. Content-hash keys and their variants shard by their
+ * own leading hex digits; other keys by the SHA-256 of the name.
+ */
+public class LocalFileStore implements FileStore {
+    private final Path root;
+
+    public LocalFileStore(Path root) throws IOException {
+        this.root = root;
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Source is on another filesystem: copy beside the target, then swap it in atomically
+            Path temp = Files.createTempFile(target.getParent(), ".store-", ".tmp");
+            try {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public FileStat stat(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new FileStat(key, attributes.size(), attributes.lastModifiedTime().toInstant());
+    }
+
+    @Override
+    public Path localPath(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    @Override
+    public void list(Consumer<FileStat> consumer) throws IOException {
+        try (Stream<Path> paths = Files.walk(root, 3)) {
+            Iterable<Path> files = () -> paths
+                    .filter(path -> root.relativize(path).getNameCount() == 3)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .iterator();
+            for (Path path : files) {
+                FileStat stat = stat(path.getFileName().toString());
+                if (stat != null) {
+                    consumer.accept(stat);
+                }
+            }
+        }
+    }
+
+    private Path resolve(String key) {
+        FileStore.checkKey(key);
+        String shard = shard(key);
+        return root.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(key);
+    }
+
+    private static String shard(String key) {
+        String prefix = key.length() >= 4 ? key.substring(0, 4).toLowerCase(Locale.ROOT) : "";
+        if (prefix.matches("[0-9a-f]{4}")) {
+            return prefix;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.nekobyte.englishtek.storage;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Objects in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW and the like), addressed path-style and
+ * signed with AWS Signature V4 over the JDK HTTP client, so no SDK is needed and a local MinIO can stand
+ * in for S3 during development.
+ */
+public class S3FileStore implements FileStore {
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public S3FileStore(String endpoint, String bucket, String region, String accessKey, String secretKey) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+    }
+
+    @Override
+    public void store(String key, Path source) throws IOException {
+        HttpResponse<String> response = send("PUT", key, Map.of(), HttpRequest.BodyPublishers.ofFile(source),
+                HttpResponse.BodyHandlers.ofString());
+        check(response, key);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 404) {
+            response.body().close();
+            throw new NoSuchFileException(key);
+        }
+        if (response.statusCode() / 100 != 2) {
+            response.body().close();
+            throw new IOException("S3 GET " + key + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        HttpResponse<String> response = send("DELETE", key, Map.of(), HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.ofString());
+        // S3 answers 204 whether or not the object existed
+        check(response, key);
+        return true;
+    }
+
+    @Override
+    public FileStat stat(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", key, Map.of(), HttpRequest.BodyPublishers.noBody(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 HEAD " + key + " failed with status " + response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(Instant.EPOCH);
+        return new FileStat(key, size, lastModified);
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    // ListObjectsV2, following continuation tokens 1000 keys at a time
+    @Override
+    public void list(Consumer<FileStat> consumer) throws IOException {
+        String token = null;
+        do {
+            Map<String, String> query = new TreeMap<>();
+            query.put("list-type", "2");
+            if (token != null) {
+                query.put("continuation-token", token);
+            }
+            HttpResponse<InputStream> response = send("GET", null, query, HttpRequest.BodyPublishers.noBody(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() / 100 != 2) {
+                    throw new IOException("S3 list of " + bucket + " failed with status " + response.statusCode());
+                }
+                Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(body);
+                NodeList contents = document.getElementsByTagName("Contents");
+                for (int i = 0; i < contents.getLength(); i++) {
+                    Element item = (Element) contents.item(i);
+                    consumer.accept(new FileStat(text(item, "Key"), Long.parseLong(text(item, "Size")),
+                            Instant.parse(text(item, "LastModified"))));
+                }
+                token = "true".equals(text(document.getDocumentElement(), "IsTruncated"))
+                        ? text(document.getDocumentElement(), "NextContinuationToken")
+                        : null;
+            } catch (ParserConfigurationException | SAXException e) {
+                throw new IOException("Could not read S3 listing: " + e.getMessage(), e);
+            }
+        } while (token != null);
+    }
+
+    private <T> HttpResponse<T> send(String method, String key, Map<String, String> query,
+                                     HttpRequest.BodyPublisher body, HttpResponse.BodyHandler<T> handler) throws IOException {
+        String path = endpoint.getRawPath() + "/" + encode(bucket) + (key != null ? "/" + encode(FileStore.checkKey(key)) : "");
+        String canonicalQuery = query.entrySet().stream()
+                .map(entry -> encode(entry.getKey()) + "=" + encode(entry.getValue()))
+                .collect(Collectors.joining("&"));
+        URI uri = URI.create(endpoint.getScheme() + "://" + endpoint.getRawAuthority() + path
+                + (canonicalQuery.isEmpty() ? "" : "?" + canonicalQuery));
+
+        String amzDate = ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n" + path + "\n" + canonicalQuery + "\n"
+                + "host:" + endpoint.getRawAuthority() + "\n"
+                + "x-amz-content-sha256:" + UNSIGNED_PAYLOAD + "\n"
+                + "x-amz-date:" + amzDate + "\n\n"
+                + signedHeaders + "\n" + UNSIGNED_PAYLOAD;
+
+        try {
+            String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n"
+                    + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                            .digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+            byte[] signingKey = hmac(hmac(hmac(hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date),
+                    region), "s3"), "aws4_request");
+            String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMinutes(2))
+                    .header("x-amz-content-sha256", UNSIGNED_PAYLOAD)
+                    .header("x-amz-date", amzDate)
+                    .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                            + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature)
+                    .method(method, body)
+                    .build();
+            return client.send(request, handler);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign S3 request", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during S3 " + method, e);
+        }
+    }
+
+    private void check(HttpResponse<String> response, String key) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("S3 " + response.request().method() + " " + key + " failed with status "
+                    + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // RFC 3986 encoding as SigV4 expects: only unreserved characters stay literal
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8)
+                .replace("+", "%20")
+                .replace("*", "%2A")
+                .replace("%7E", "~");
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent() : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nekobyte.englishtek.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip encoding for stored text. Gzip (rather than raw deflate) is used so stored bytes can be sent
+ * as-is to HTTP clients that accept Content-Encoding: gzip.
+ */
+public final class ContentCompression {
+    private ContentCompression() {
+    }
+
+    public static byte[] compress(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress content", e);
+        }
+        return out.toByteArray();
+    }
+
+    public static String decompress(byte[] data) {
+        // Tolerates uncompressed UTF-8, e.g. rows written before compression was introduced
+        if (!isGzip(data)) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data), 8192)) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress content", e);
+        }
+    }
+
+    public static boolean isGzip(byte[] data) {
+        return data != null && data.length >= 2 && (data[0] & 0xff) == 0x1f && (data[1] & 0xff) == 0x8b;
+    }
+}
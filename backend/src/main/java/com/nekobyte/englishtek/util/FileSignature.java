@@ -0,0 +1,70 @@
+package com.nekobyte.englishtek.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Identifies uploads from their leading bytes instead of trusting the client's file name or content type.
+ */
+public final class FileSignature {
+    // Enough for every signature below
+    public static final int HEADER_LENGTH = 12;
+
+    // Extensions whose content must carry the matching signature
+    private static final Set<String> SIGNED_EXTENSIONS = Set.of(".png", ".jpg", ".jpeg", ".gif", ".webp", ".pdf");
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+
+    private FileSignature() {
+    }
+
+    // Canonical extension for the detected type, or null when the content is not a recognized format
+    public static String detectExtension(byte[] header) {
+        if (startsWith(header, PNG)) {
+            return ".png";
+        }
+        if (startsWith(header, JPEG)) {
+            return ".jpg";
+        }
+        if (startsWithAscii(header, 0, "GIF87a") || startsWithAscii(header, 0, "GIF89a")) {
+            return ".gif";
+        }
+        if (startsWithAscii(header, 0, "RIFF") && startsWithAscii(header, 8, "WEBP")) {
+            return ".webp";
+        }
+        if (startsWithAscii(header, 0, "%PDF-")) {
+            return ".pdf";
+        }
+        return null;
+    }
+
+    public static boolean requiresSignature(String extension) {
+        return SIGNED_EXTENSIONS.contains(extension);
+    }
+
+    private static boolean startsWith(byte[] header, byte[] signature) {
+        if (header.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithAscii(byte[] header, int offset, String signature) {
+        byte[] bytes = signature.getBytes(StandardCharsets.US_ASCII);
+        if (header.length < offset + bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (header[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.nekobyte.englishtek.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches free-text answers against an expected answer within a bounded edit distance.
+ * The expected answer is normalized and compiled once (bit-parallel Myers/Hyyro tables when it fits in
+ * 64 characters), so each candidate costs one normalization plus a single pass that bails out as soon
+ * as the distance can no longer come back under the limit.
+ */
+public final class FuzzyMatcher {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{P}\\p{S}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int[] expected;
+    private final int maxEdits;
+    private final long[] asciiMasks;
+    private final Map<Integer, Long> otherMasks;
+
+    private FuzzyMatcher(String expected, int maxEdits) {
+        this.expected = normalize(expected).codePoints().toArray();
+        this.maxEdits = Math.max(0, maxEdits);
+
+        if (this.maxEdits > 0 && this.expected.length > 0 && this.expected.length <= 64) {
+            asciiMasks = new long[128];
+            otherMasks = new HashMap<>();
+            for (int i = 0; i < this.expected.length; i++) {
+                int c = this.expected[i];
+                if (c < 128) {
+                    asciiMasks[c] |= 1L << i;
+                } else {
+                    otherMasks.merge(c, 1L << i, (a, b) -> a | b);
+                }
+            }
+        } else {
+            asciiMasks = null;
+            otherMasks = null;
+        }
+    }
+
+    public static FuzzyMatcher compile(String expected, int maxEdits) {
+        return new FuzzyMatcher(expected, maxEdits);
+    }
+
+    // Case folding, diacritics and punctuation stripping, whitespace collapsing
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(value, Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        folded = PUNCTUATION.matcher(folded).replaceAll("");
+        folded = WHITESPACE.matcher(folded).replaceAll(" ");
+        return folded.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public boolean matches(String answer) {
+        if (answer == null) {
+            return false;
+        }
+        int[] text = normalize(answer).codePoints().toArray();
+        // A blank answer is never correct, however short the expected answer is
+        if (text.length == 0 || Math.abs(text.length - expected.length) > maxEdits) {
+            return false;
+        }
+        if (maxEdits == 0) {
+            return Arrays.equals(expected, text);
+        }
+        // The length check above already bounds the distance when nothing is expected
+        if (expected.length == 0) {
+            return true;
+        }
+        return asciiMasks != null ? withinBitParallel(text) : withinBanded(text);
+    }
+
+    private long mask(int c) {
+        return c < 128 ? asciiMasks[c] : otherMasks.getOrDefault(c, 0L);
+    }
+
+    private boolean withinBitParallel(int[] text) {
+        int m = expected.length;
+        long last = 1L << (m - 1);
+        long pv = m == 64 ? -1L : (1L << m) - 1;
+        long mv = 0;
+        int score = m;
+
+        for (int j = 0; j < text.length; j++) {
+            long eq = mask(text[j]);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            // Each remaining character can lower the distance by at most one
+            if (score - (text.length - j - 1) > maxEdits) {
+                return false;
+            }
+            ph = (ph << 1) | 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+        }
+        return score <= maxEdits;
+    }
+
+    // Fallback for long answers: Levenshtein restricted to the diagonal band of width maxEdits
+    private boolean withinBanded(int[] text) {
+        int m = expected.length;
+        int n = text.length;
+        int outside = maxEdits + 1;
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j <= maxEdits ? j : outside;
+        }
+
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(n, i + maxEdits);
+            Arrays.fill(current, outside);
+            current[0] = i <= maxEdits ? i : outside;
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = expected[i - 1] == text[j - 1] ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, outside);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[n] <= maxEdits;
+    }
+}
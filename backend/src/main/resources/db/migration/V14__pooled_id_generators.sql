@@ -0,0 +1,33 @@
+-- Content and progress tables switch from IDENTITY to a pooled table generator so
+-- Hibernate can batch inserts. Each row holds the next id block for one table; seed
+-- them past the current maximum (plus one allocation block) so new ids never collide.
+-- The application applies the same seeding on every startup (DataMigrationService), since
+-- the schema is managed by ddl-auto rather than by running these scripts.
+CREATE TABLE IF NOT EXISTS id_generators (
+    gen_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    gen_value BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'quizzes', COALESCE(MAX(id), 0) + 51 FROM quizzes
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'quiz_questions', COALESCE(MAX(id), 0) + 51 FROM quiz_questions
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'lessons', COALESCE(MAX(id), 0) + 51 FROM lessons
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'quiz_attempts', COALESCE(MAX(id), 0) + 51 FROM quiz_attempts
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'lesson_attempts', COALESCE(MAX(id), 0) + 51 FROM lesson_attempts
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'user_badges', COALESCE(MAX(id), 0) + 51 FROM user_badges
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
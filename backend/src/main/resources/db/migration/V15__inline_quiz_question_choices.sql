@@ -0,0 +1,17 @@
+-- Choices move from the quiz_question_choices child table to a JSON array on the question row.
+-- The child table has no order column, so rows are aggregated in their physical (insertion) order,
+-- which is the order Hibernate read them in before.
+-- The application performs this copy itself on startup (DataMigrationService) and drops the old
+-- table once every question has its choices.
+ALTER TABLE quiz_questions ADD COLUMN choices JSON NULL;
+
+UPDATE quiz_questions q
+SET q.choices = (
+    SELECT JSON_ARRAYAGG(c.choice)
+    FROM quiz_question_choices c
+    WHERE c.question_id = q.id
+);
+
+UPDATE quiz_questions SET choices = JSON_ARRAY() WHERE choices IS NULL;
+
+DROP TABLE quiz_question_choices;
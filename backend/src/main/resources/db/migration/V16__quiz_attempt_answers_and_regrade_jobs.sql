@@ -0,0 +1,19 @@
+-- Submitted answers are kept on the attempt (one JSON object per attempt) so scores can be recomputed
+ALTER TABLE quiz_attempts ADD COLUMN answers JSON NULL;
+
+CREATE TABLE IF NOT EXISTS quiz_regrade_jobs (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    last_attempt_id BIGINT NOT NULL DEFAULT 0,
+    total_attempts BIGINT NOT NULL DEFAULT 0,
+    processed_attempts BIGINT NOT NULL DEFAULT 0,
+    changed_scores BIGINT NOT NULL DEFAULT 0,
+    badges_awarded BIGINT NOT NULL DEFAULT 0,
+    error TEXT NULL,
+    created_at DATETIME(6) NULL,
+    updated_at DATETIME(6) NULL,
+    completed_at DATETIME(6) NULL,
+    INDEX idx_quiz_regrade_jobs_quiz (quiz_id),
+    INDEX idx_quiz_regrade_jobs_status (status)
+) ENGINE = InnoDB;
@@ -0,0 +1,2 @@
+-- Per-question typo tolerance for identification answers; 0 keeps the normalized exact match
+ALTER TABLE quiz_questions ADD COLUMN max_edits INT NOT NULL DEFAULT 0;
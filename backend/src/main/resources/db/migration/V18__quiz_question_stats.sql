@@ -0,0 +1,13 @@
+-- Running per-question item-analysis totals, flushed periodically from in-memory counters
+CREATE TABLE IF NOT EXISTS quiz_question_stats (
+    question_id BIGINT NOT NULL PRIMARY KEY,
+    quiz_id BIGINT NOT NULL,
+    attempts BIGINT NOT NULL DEFAULT 0,
+    correct_count BIGINT NOT NULL DEFAULT 0,
+    score_sum BIGINT NOT NULL DEFAULT 0,
+    score_square_sum BIGINT NOT NULL DEFAULT 0,
+    correct_score_sum BIGINT NOT NULL DEFAULT 0,
+    choice_counts JSON NULL,
+    updated_at DATETIME(6) NULL,
+    INDEX idx_quiz_question_stats_quiz (quiz_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,5 @@
+-- Served question order and autosaved answers of in-progress attempts
+ALTER TABLE quiz_attempts
+    ADD COLUMN question_order JSON NULL,
+    ADD COLUMN draft_answers JSON NULL,
+    ADD COLUMN draft_saved_at DATETIME(6) NULL;
@@ -0,0 +1,65 @@
+-- Append-only history of every submitted quiz attempt. quiz_attempts keeps only the latest row
+-- per user and quiz; retakes and chapter rearranges no longer delete anything.
+-- Range-partitioned by month on completed_at: MySQL requires the partition column in the primary key,
+-- queries bounded on completed_at prune to the matching months, and old months are dropped with
+-- ALTER TABLE ... DROP PARTITION. QuizAttemptHistoryService adds upcoming months ahead of time.
+-- Since the schema is managed by ddl-auto, QuizAttemptHistoryService.preparePartitions performs the
+-- seeding and the conversion to monthly partitions itself on startup.
+CREATE TABLE IF NOT EXISTS quiz_attempt_history (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    quiz_id BIGINT NOT NULL,
+    chapter_id BIGINT NULL,
+    quiz_title VARCHAR(255) NULL,
+    score INT NOT NULL,
+    max_score INT NULL,
+    number_of_items INT NULL,
+    answers JSON NULL,
+    started_at DATETIME(6) NULL,
+    completed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, completed_at),
+    INDEX idx_quiz_attempt_history_user (user_id, completed_at),
+    INDEX idx_quiz_attempt_history_user_quiz (user_id, quiz_id, completed_at)
+) ENGINE = InnoDB
+PARTITION BY RANGE COLUMNS (completed_at) (
+    PARTITION p_legacy VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p202701 VALUES LESS THAN ('2027-02-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- Seed with the attempts that are already completed
+INSERT INTO quiz_attempt_history (id, user_id, quiz_id, chapter_id, quiz_title, score, max_score,
+                                  number_of_items, answers, started_at, completed_at)
+SELECT qa.id, qa.user_id, qa.quiz_id, q.chapter_id, q.title, qa.score, q.max_score,
+       q.number_of_items, qa.answers, qa.started_at, qa.completed_at
+FROM quiz_attempts qa
+JOIN quizzes q ON q.id = qa.quiz_id
+WHERE qa.completed_at IS NOT NULL;
+
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'quiz_attempt_history', COALESCE(MAX(id), 0) + 51 FROM quiz_attempt_history
+ON DUPLICATE KEY UPDATE gen_value = GREATEST(gen_value, VALUES(gen_value));
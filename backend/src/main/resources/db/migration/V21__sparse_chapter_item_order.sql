@@ -0,0 +1,20 @@
+-- Lessons and quizzes share one sparse item_order space (keys 1024 apart) so moving an item only
+-- rewrites that row. Respace each chapter's items by their current position; positions are
+-- captured first so the second update doesn't see the first one's new keys.
+CREATE TEMPORARY TABLE chapter_item_positions AS
+SELECT type, id, ROW_NUMBER() OVER (PARTITION BY chapter_id ORDER BY item_order, type, id) AS position
+FROM (
+    SELECT 'lesson' AS type, id, chapter_id, COALESCE(item_order, 0) AS item_order FROM lessons
+    UNION ALL
+    SELECT 'quiz' AS type, id, chapter_id, COALESCE(item_order, 0) AS item_order FROM quizzes
+) items;
+
+UPDATE lessons l
+JOIN chapter_item_positions p ON p.type = 'lesson' AND p.id = l.id
+SET l.item_order = p.position * 1024;
+
+UPDATE quizzes q
+JOIN chapter_item_positions p ON p.type = 'quiz' AND p.id = q.id
+SET q.item_order = p.position * 1024;
+
+DROP TEMPORARY TABLE chapter_item_positions;
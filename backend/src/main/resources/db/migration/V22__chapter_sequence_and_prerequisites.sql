@@ -0,0 +1,16 @@
+-- Chapters get an explicit position instead of relying on id order, plus optional prerequisite
+-- edges. A chapter without rows in chapter_prerequisites depends on the previous chapter in sequence.
+ALTER TABLE chapters ADD COLUMN sequence INT NULL;
+
+UPDATE chapters c
+JOIN (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS position FROM chapters) ordered ON ordered.id = c.id
+SET c.sequence = ordered.position;
+
+CREATE TABLE chapter_prerequisites (
+    chapter_id BIGINT NOT NULL,
+    prerequisite_id BIGINT NOT NULL,
+    PRIMARY KEY (chapter_id, prerequisite_id),
+    KEY idx_chapter_prerequisites_prerequisite (prerequisite_id),
+    CONSTRAINT fk_chapter_prerequisites_chapter FOREIGN KEY (chapter_id) REFERENCES chapters (id) ON DELETE CASCADE,
+    CONSTRAINT fk_chapter_prerequisites_prerequisite FOREIGN KEY (prerequisite_id) REFERENCES chapters (id) ON DELETE CASCADE
+);
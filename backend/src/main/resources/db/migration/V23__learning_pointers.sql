@@ -0,0 +1,12 @@
+-- Per-user "continue learning" pointer. Rows are a cache: they are recomputed whenever their
+-- catalog_version no longer matches the running catalog, so no backfill is needed.
+CREATE TABLE learning_pointers (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    chapter_id BIGINT NULL,
+    chapter_title VARCHAR(255) NULL,
+    item_type VARCHAR(255) NULL,
+    item_id BIGINT NULL,
+    item_title VARCHAR(255) NULL,
+    catalog_version BIGINT NOT NULL,
+    updated_at DATETIME(6) NULL
+);
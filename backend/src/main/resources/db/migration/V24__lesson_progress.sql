@@ -0,0 +1,9 @@
+-- Last lesson page each user reached; written by batched heartbeat UPSERTs.
+CREATE TABLE lesson_progress (
+    user_id BIGINT NOT NULL,
+    lesson_id BIGINT NOT NULL,
+    page INT NOT NULL,
+    updated_at DATETIME(6) NULL,
+    PRIMARY KEY (user_id, lesson_id),
+    KEY idx_lesson_progress_lesson (lesson_id)
+);
@@ -0,0 +1,14 @@
+-- Lesson pages become an indexed list so a single page can be fetched by (lesson_id, page_index).
+-- Existing rows have no key of their own; number them per lesson in stored order, which is the
+-- order they have always been loaded in.
+-- The application numbers them on startup instead (DataMigrationService), since under ddl-auto
+-- Hibernate adds page_index as NOT NULL (every existing row reads 0) and nothing runs this script.
+ALTER TABLE lesson_content ADD COLUMN page_index INT NULL;
+
+SET @page := -1, @lesson := NULL;
+UPDATE lesson_content
+SET page_index = (@page := IF(@lesson = lesson_id, @page + 1, 0)) + LEAST(0, @lesson := lesson_id)
+ORDER BY lesson_id;
+
+ALTER TABLE lesson_content MODIFY page_index INT NOT NULL;
+CREATE INDEX idx_lesson_content_page ON lesson_content (lesson_id, page_index);
@@ -0,0 +1,6 @@
+-- Lesson pages are stored gzip-compressed in content_gz. MySQL's COMPRESS() is not gzip, so existing
+-- pages are compressed by the application on startup (DataMigrationService), which also empties the
+-- legacy column. Once every environment has started on this version, the old column can be dropped:
+--   ALTER TABLE lesson_content DROP COLUMN content;
+ALTER TABLE lesson_content ADD COLUMN content_gz LONGBLOB NULL;
+ALTER TABLE lesson_content MODIFY content LONGTEXT NULL;
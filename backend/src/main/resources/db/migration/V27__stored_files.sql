@@ -0,0 +1,9 @@
+-- Reference counts for uploads stored under their SHA-256 content hash.
+-- Files uploaded before this change keep their UUID names and have no row.
+CREATE TABLE stored_files (
+    file_name VARCHAR(80) NOT NULL,
+    ref_count INT NOT NULL,
+    size BIGINT NULL,
+    created_at DATETIME(6) NULL,
+    PRIMARY KEY (file_name)
+);
@@ -0,0 +1,13 @@
+-- Running feedback totals per chapter, adjusted on every feedback submit, update and delete.
+-- Chapters without a row are counted from feedbacks on first use, so no backfill is needed here.
+CREATE TABLE chapter_feedback_stats (
+    chapter_id BIGINT NOT NULL,
+    feedback_count BIGINT NOT NULL,
+    rating_sum BIGINT NOT NULL,
+    rating_counts JSON NULL,
+    keyword_counts JSON NULL,
+    updated_at DATETIME(6) NULL,
+    PRIMARY KEY (chapter_id)
+);
+
+CREATE INDEX idx_feedbacks_chapter_created ON feedbacks (chapter_id, created_at);
@@ -0,0 +1,51 @@
+package com.nekobyte.englishtek.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileControllerTest {
+	private static final long SIZE = 1000;
+	private static final long[] IGNORED = new long[0];
+
+	@Test
+	void parsesClosedAndOpenRanges() {
+		assertArrayEquals(new long[]{0, 499}, FileController.parseRange("bytes=0-499", SIZE));
+		assertArrayEquals(new long[]{500, 999}, FileController.parseRange("bytes=500-", SIZE));
+		assertArrayEquals(new long[]{5, 5}, FileController.parseRange("bytes=5-5", SIZE));
+	}
+
+	@Test
+	void clampsTheLastPositionToTheFile() {
+		assertArrayEquals(new long[]{900, 999}, FileController.parseRange("bytes=900-5000", SIZE));
+	}
+
+	@Test
+	void parsesSuffixRanges() {
+		assertArrayEquals(new long[]{900, 999}, FileController.parseRange("bytes=-100", SIZE));
+		assertArrayEquals(new long[]{0, 999}, FileController.parseRange("bytes=-5000", SIZE));
+	}
+
+	@Test
+	void ignoresMalformedRanges() {
+		assertArrayEquals(IGNORED, FileController.parseRange("bytes=5-3", SIZE));
+		assertArrayEquals(IGNORED, FileController.parseRange("bytes=abc-", SIZE));
+		assertArrayEquals(IGNORED, FileController.parseRange("bytes=10", SIZE));
+		assertArrayEquals(IGNORED, FileController.parseRange("bytes=-", SIZE));
+	}
+
+	@Test
+	void ignoresOtherUnitsAndMultipleRanges() {
+		assertArrayEquals(IGNORED, FileController.parseRange("items=0-10", SIZE));
+		assertArrayEquals(IGNORED, FileController.parseRange("bytes=0-10,20-30", SIZE));
+	}
+
+	@Test
+	void rejectsUnsatisfiableRanges() {
+		assertNull(FileController.parseRange("bytes=1000-", SIZE));
+		assertNull(FileController.parseRange("bytes=1000-2000", SIZE));
+		assertNull(FileController.parseRange("bytes=-0", SIZE));
+		assertNull(FileController.parseRange("bytes=0-", 0));
+	}
+}
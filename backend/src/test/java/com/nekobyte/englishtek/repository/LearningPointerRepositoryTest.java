@@ -0,0 +1,50 @@
+package com.nekobyte.englishtek.repository;
+
+import com.nekobyte.englishtek.MySqlTestSupport;
+import com.nekobyte.englishtek.model.LearningPointer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LearningPointerRepositoryTest extends MySqlTestSupport {
+	private static final long USER_ID = 42L;
+
+	@Autowired
+	private LearningPointerRepository learningPointerRepository;
+
+	@Test
+	void concurrentUpsertsOfOnePointerDoNotCollide() {
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Void>> writes = new ArrayList<>();
+		for (long item = 1; item <= 8; item++) {
+			long itemId = item;
+			writes.add(CompletableFuture.runAsync(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				learningPointerRepository.upsert(USER_ID, 1L, "Basics", "lesson", itemId, "Lesson " + itemId,
+						3L, LocalDateTime.now());
+			}));
+		}
+		start.countDown();
+		writes.forEach(CompletableFuture::join);
+
+		learningPointerRepository.upsert(USER_ID, 2L, "Travel", "quiz", 9L, "At the airport", 4L, LocalDateTime.now());
+
+		assertEquals(1, learningPointerRepository.count());
+		LearningPointer pointer = learningPointerRepository.findById(USER_ID).orElseThrow();
+		assertEquals(2L, pointer.getChapterId());
+		assertEquals("quiz", pointer.getItemType());
+		assertEquals(9L, pointer.getItemId());
+		assertEquals(4L, pointer.getCatalogVersion());
+	}
+}
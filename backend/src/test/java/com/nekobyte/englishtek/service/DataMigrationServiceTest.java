@@ -0,0 +1,71 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.model.Lesson;
+import com.nekobyte.englishtek.model.LessonAttempt;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizAttempt;
+import com.nekobyte.englishtek.model.QuizAttemptHistory;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.model.UserBadge;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.TableGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DataMigrationServiceTest {
+	// Entities whose inserts are batched because their ids come from the pooled table generator
+	private static final List<Class<?>> POOLED_ENTITIES = List.of(Quiz.class, QuizQuestion.class, Lesson.class,
+			QuizAttempt.class, LessonAttempt.class, UserBadge.class, QuizAttemptHistory.class);
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final DataMigrationService dataMigrationService = new DataMigrationService(mock(ChapterRepository.class),
+			mock(QuizRepository.class), mock(ChapterGraph.class), mock(QuizAttemptHistoryService.class), jdbcTemplate);
+
+	@Test
+	void pooledEntitiesShareTheIdGeneratorTable() {
+		for (Class<?> entity : POOLED_ENTITIES) {
+			Field id = idField(entity);
+			assertEquals(GenerationType.TABLE, id.getAnnotation(GeneratedValue.class).strategy(), entity.getSimpleName());
+			TableGenerator generator = id.getAnnotation(TableGenerator.class);
+			assertNotNull(generator, entity.getSimpleName());
+			assertEquals("id_generators", generator.table(), entity.getSimpleName());
+			assertTrue(generator.allocationSize() > 1, entity.getSimpleName() + " ids are not pooled");
+		}
+	}
+
+	@Test
+	void everyGeneratorIsSeededPastItsTablesHighestId() {
+		dataMigrationService.prepareSchema();
+
+		for (Class<?> entity : POOLED_ENTITIES) {
+			TableGenerator generator = idField(entity).getAnnotation(TableGenerator.class);
+			String table = generator.pkColumnValue();
+			verify(jdbcTemplate).update(contains("COALESCE(MAX(id), 0) + ? FROM " + table + " "),
+					eq(table), eq(generator.allocationSize() + 1));
+		}
+	}
+
+	private static Field idField(Class<?> entity) {
+		for (Field field : entity.getDeclaredFields()) {
+			if (field.isAnnotationPresent(Id.class)) {
+				return field;
+			}
+		}
+		throw new IllegalStateException(entity.getSimpleName() + " has no @Id field");
+	}
+}
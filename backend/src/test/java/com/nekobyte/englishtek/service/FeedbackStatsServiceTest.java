@@ -0,0 +1,53 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.MySqlTestSupport;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeedbackStatsServiceTest extends MySqlTestSupport {
+	private static final int WRITERS = 8;
+
+	@Autowired
+	private FeedbackStatsService feedbackStatsService;
+	@Autowired
+	private ChapterRepository chapterRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void concurrentFirstWritesToAChapterAllCount() {
+		Chapter chapter = new Chapter();
+		chapter.setTitle("Basics");
+		chapter.setDescription("Everyday English");
+		Long chapterId = chapterRepository.save(chapter).getId();
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Void>> writes = new ArrayList<>();
+		for (int i = 0; i < WRITERS; i++) {
+			int rating = 1 + i % 5;
+			writes.add(CompletableFuture.runAsync(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				transactionTemplate.executeWithoutResult(status -> feedbackStatsService.added(chapterId, rating, "Grammar"));
+			}));
+		}
+		start.countDown();
+		writes.forEach(CompletableFuture::join);
+
+		assertEquals(WRITERS, feedbackStatsService.getStats(chapterId).getFeedbackCount());
+		assertEquals(WRITERS, feedbackStatsService.getStats(chapterId).getKeywordCounts().get("grammar"));
+	}
+}
@@ -0,0 +1,73 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.MySqlTestSupport;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Lesson;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.LessonRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LessonContentUpgradeTest extends MySqlTestSupport {
+	@Autowired
+	private DataMigrationService dataMigrationService;
+	@Autowired
+	private ChapterRepository chapterRepository;
+	@Autowired
+	private LessonRepository lessonRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void upgradeKeepsEveryPageOfAMultiPageLessonInOrder() {
+		Chapter chapter = new Chapter();
+		chapter.setTitle("Basics");
+		chapter.setDescription("Everyday English");
+		chapter = chapterRepository.save(chapter);
+		Long greetings = lessonRepository.save(lesson(chapter, "Greetings")).getId();
+		Long farewells = lessonRepository.save(lesson(chapter, "Farewells")).getId();
+
+		// lesson_content as it was before pages were indexed, after Hibernate's update has added its new columns
+		jdbcTemplate.execute("DROP TABLE lesson_content");
+		jdbcTemplate.execute("CREATE TABLE lesson_content (lesson_id BIGINT NOT NULL, content LONGTEXT)");
+		jdbcTemplate.batchUpdate("INSERT INTO lesson_content (lesson_id, content) VALUES (?, ?)", List.of(
+				new Object[]{greetings, "Hello, how are you?"},
+				new Object[]{farewells, "Goodbye!"},
+				new Object[]{greetings, "Good morning."},
+				new Object[]{greetings, "Nice to meet you."}));
+		jdbcTemplate.execute("ALTER TABLE lesson_content ADD COLUMN content_gz LONGBLOB, ADD COLUMN page_index INT NOT NULL");
+
+		// Pages must be readable once the context is up, before any ready listener has run
+		dataMigrationService.prepareSchema();
+
+		assertEquals(List.of("Hello, how are you?", "Good morning.", "Nice to meet you."), pages(greetings));
+		assertEquals(List.of("Goodbye!"), pages(farewells));
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM lesson_content WHERE content IS NOT NULL OR content_gz IS NULL", Integer.class));
+
+		// A second start leaves the numbered pages alone
+		dataMigrationService.prepareSchema();
+		assertEquals(List.of("Hello, how are you?", "Good morning.", "Nice to meet you."), pages(greetings));
+	}
+
+	private List<String> pages(Long lessonId) {
+		return transactionTemplate.execute(status ->
+				new ArrayList<>(lessonRepository.findById(lessonId).orElseThrow().getContent()));
+	}
+
+	private static Lesson lesson(Chapter chapter, String title) {
+		Lesson lesson = new Lesson();
+		lesson.setTitle(title);
+		lesson.setChapter(chapter);
+		return lesson;
+	}
+}
@@ -0,0 +1,94 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.MySqlTestSupport;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.QuizQuestionRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class QuestionChoicesUpgradeTest extends MySqlTestSupport {
+	@Autowired
+	private DataMigrationService dataMigrationService;
+	@Autowired
+	private ChapterRepository chapterRepository;
+	@Autowired
+	private QuizRepository quizRepository;
+	@Autowired
+	private QuizQuestionRepository quizQuestionRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	// quiz_question_choices_migrated is where earlier versions of the upgrade left the old table
+	@ParameterizedTest
+	@ValueSource(strings = {"quiz_question_choices", "quiz_question_choices_migrated"})
+	void upgradedQuestionsCanBeDeleted(String table) {
+		Quiz quiz = quizRepository.save(quiz("Greetings", "Pick the greeting", "Pick the farewell"));
+		Long greeting = quiz.getQuestions().get(0).getId();
+		Long farewell = quiz.getQuestions().get(1).getId();
+
+		// Choices as they were stored before they moved onto the question row
+		jdbcTemplate.update("UPDATE quiz_questions SET choices = NULL WHERE quiz_id = ?", quiz.getId());
+		jdbcTemplate.execute("CREATE TABLE " + table + " (question_id BIGINT NOT NULL, choice VARCHAR(255), " +
+				"FOREIGN KEY (question_id) REFERENCES quiz_questions (id))");
+		jdbcTemplate.batchUpdate("INSERT INTO " + table + " (question_id, choice) VALUES (?, ?)", List.of(
+				new Object[]{greeting, "Hello"},
+				new Object[]{farewell, "Goodbye"},
+				new Object[]{greeting, "Hi"}));
+
+		dataMigrationService.prepareSchema();
+
+		assertEquals(List.of("Hello", "Hi"), choices(greeting));
+		assertEquals(List.of("Goodbye"), choices(farewell));
+		assertFalse(tableExists(table));
+
+		transactionTemplate.executeWithoutResult(status -> quizQuestionRepository.deleteByIdIn(List.of(greeting)));
+		assertFalse(quizQuestionRepository.existsById(greeting));
+	}
+
+	private List<String> choices(Long questionId) {
+		return new ArrayList<>(quizQuestionRepository.findById(questionId).orElseThrow().getChoices());
+	}
+
+	private boolean tableExists(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES " +
+				"WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, table) > 0;
+	}
+
+	private Quiz quiz(String title, String... questionTitles) {
+		Chapter chapter = new Chapter();
+		chapter.setTitle("Basics");
+		chapter.setDescription("Everyday English");
+
+		Quiz quiz = new Quiz();
+		quiz.setTitle(title);
+		quiz.setDifficulty(1);
+		quiz.setMaxScore(questionTitles.length);
+		quiz.setNumberOfItems(questionTitles.length);
+		quiz.setChapter(chapterRepository.save(chapter));
+		for (String questionTitle : questionTitles) {
+			QuizQuestion question = new QuizQuestion();
+			question.setPage(1);
+			question.setType("multiple_choice");
+			question.setTitle(questionTitle);
+			question.setCorrectAnswer("[]");
+			question.setQuiz(quiz);
+			quiz.getQuestions().add(question);
+		}
+		return quiz;
+	}
+}
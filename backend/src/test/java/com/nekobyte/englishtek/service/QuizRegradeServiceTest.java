@@ -0,0 +1,129 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.MySqlTestSupport;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizAttempt;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.model.User;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.QuizAttemptRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import com.nekobyte.englishtek.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class QuizRegradeServiceTest extends MySqlTestSupport {
+	@Autowired
+	private QuizRegradeService quizRegradeService;
+	@Autowired
+	private ChapterRepository chapterRepository;
+	@Autowired
+	private QuizRepository quizRepository;
+	@Autowired
+	private QuizAttemptRepository quizAttemptRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void regradeStoresScoresOutOfTheQuizMaxScore() throws InterruptedException {
+		Quiz quiz = quizRepository.save(quiz(10, "Hello", "Goodbye"));
+		QuizQuestion greeting = quiz.getQuestions().get(0);
+		QuizQuestion farewell = quiz.getQuestions().get(1);
+		QuizAttempt attempt = attempt(quiz, "{\"" + greeting.getId() + "\":\"[\\\"Hello\\\"]\"," +
+				"\"" + farewell.getId() + "\":\"[\\\"Hello\\\"]\"}", 1);
+
+		quizRegradeService.startRegrade(quiz.getId());
+		awaitRegrade(quiz.getId());
+
+		// One of two questions right, stored before scores were scaled
+		assertEquals(5, quizAttemptRepository.findById(attempt.getId()).orElseThrow().getScore());
+	}
+
+	@Test
+	void regradedScoreIsNotWrittenOverARetake() {
+		Quiz quiz = quizRepository.save(quiz(10, "Hello"));
+		LocalDateTime completedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		QuizAttempt attempt = attempt(quiz, "{}", 0);
+		attempt.setCompletedAt(completedAt);
+		attempt = quizAttemptRepository.save(attempt);
+		Long attemptId = attempt.getId();
+
+		assertEquals(1, update(attemptId, completedAt, 0, 10));
+
+		// Retaking clears the graded submission before the next chunk gets to it
+		attempt = quizAttemptRepository.findById(attemptId).orElseThrow();
+		attempt.setScore(0);
+		attempt.setCompletedAt(null);
+		quizAttemptRepository.save(attempt);
+
+		assertEquals(0, update(attemptId, completedAt, 10, 5));
+		assertEquals(0, quizAttemptRepository.findById(attemptId).orElseThrow().getScore());
+	}
+
+	private int update(Long attemptId, LocalDateTime completedAt, int gradedScore, int score) {
+		return transactionTemplate.execute(status ->
+				quizAttemptRepository.updateRegradedScore(attemptId, completedAt, gradedScore, score));
+	}
+
+	private void awaitRegrade(Long quizId) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			if ("COMPLETED".equals(quizRegradeService.getLatestJob(quizId).getStatus())) {
+				return;
+			}
+			Thread.sleep(100);
+		}
+		fail("Re-grade did not complete");
+	}
+
+	private QuizAttempt attempt(Quiz quiz, String answers, int score) {
+		User user = new User();
+		user.setUsername("learner" + quiz.getId());
+		user.setEmail("learner" + quiz.getId() + "@example.com");
+		user.setPassword("secret");
+		user.setName("Learner");
+
+		QuizAttempt attempt = new QuizAttempt();
+		attempt.setUser(userRepository.save(user));
+		attempt.setQuiz(quiz);
+		attempt.setAnswers(answers);
+		attempt.setScore(score);
+		attempt.setStartedAt(LocalDateTime.now());
+		attempt.setCompletedAt(LocalDateTime.now());
+		return quizAttemptRepository.save(attempt);
+	}
+
+	private Quiz quiz(int maxScore, String... correctChoices) {
+		Chapter chapter = new Chapter();
+		chapter.setTitle("Basics");
+		chapter.setDescription("Everyday English");
+
+		Quiz quiz = new Quiz();
+		quiz.setTitle("Greetings");
+		quiz.setDifficulty(1);
+		quiz.setMaxScore(maxScore);
+		quiz.setNumberOfItems(correctChoices.length);
+		quiz.setChapter(chapterRepository.save(chapter));
+		for (String correctChoice : correctChoices) {
+			QuizQuestion question = new QuizQuestion();
+			question.setPage(1);
+			question.setType("multiple_choice");
+			question.setTitle("Pick " + correctChoice);
+			question.getChoices().add("Hello");
+			question.getChoices().add("Goodbye");
+			question.setCorrectAnswer("[\"" + correctChoice + "\"]");
+			question.setQuiz(quiz);
+			quiz.getQuestions().add(question);
+		}
+		return quiz;
+	}
+}
@@ -0,0 +1,201 @@
+package com.nekobyte.englishtek.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nekobyte.englishtek.dto.quiz.QuizRequest;
+import com.nekobyte.englishtek.dto.quiz.QuizSubmissionRequest;
+import com.nekobyte.englishtek.dto.quiz.QuizSubmissionResponse;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.Quiz;
+import com.nekobyte.englishtek.model.QuizAttempt;
+import com.nekobyte.englishtek.model.QuizQuestion;
+import com.nekobyte.englishtek.model.User;
+import com.nekobyte.englishtek.repository.BadgeRepository;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.QuizAttemptRepository;
+import com.nekobyte.englishtek.repository.QuizQuestionRepository;
+import com.nekobyte.englishtek.repository.QuizRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuizServiceTest {
+	private static final long QUIZ_ID = 7L;
+	private static final long CHAPTER_ID = 3L;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final QuizRepository quizRepository = mock(QuizRepository.class);
+	private final ChapterRepository chapterRepository = mock(ChapterRepository.class);
+	private final QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class);
+	private final QuizQuestionRepository quizQuestionRepository = mock(QuizQuestionRepository.class);
+	private final UserService userService = mock(UserService.class);
+	private final QuizRegradeService quizRegradeService = mock(QuizRegradeService.class);
+	private final QuizItemStatsService quizItemStatsService = mock(QuizItemStatsService.class);
+
+	private final QuizService quizService = new QuizService(quizRepository, chapterRepository,
+			quizAttemptRepository, quizQuestionRepository, mock(BadgeRepository.class), userService,
+			mock(BadgeService.class), new QuizGrader(objectMapper), quizRegradeService, quizItemStatsService,
+			mock(QuizDraftService.class), mock(QuizAttemptHistoryService.class), mock(ChapterItemOrdering.class),
+			mock(ChapterGraph.class), mock(SearchIndexService.class), mock(LearningPointerService.class),
+			objectMapper);
+
+	private User user;
+	private Quiz quiz;
+	private QuizQuestion first;
+	private QuizQuestion second;
+
+	@BeforeEach
+	void setUp() {
+		Chapter chapter = new Chapter();
+		chapter.setId(CHAPTER_ID);
+		user = new User();
+		user.setId(1L);
+		user.setRole(User.Role.USER);
+
+		quiz = new Quiz();
+		quiz.setId(QUIZ_ID);
+		quiz.setChapter(chapter);
+		quiz.setMaxScore(2);
+		first = question(1L, "Pick the greeting", "Hello");
+		second = question(2L, "Pick the farewell", "Goodbye");
+		quiz.getQuestions().add(first);
+		quiz.getQuestions().add(second);
+
+		when(quizRepository.findWithQuestionsById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+		when(quizRepository.save(any(Quiz.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(chapterRepository.findById(CHAPTER_ID)).thenReturn(Optional.of(chapter));
+		when(userService.getCurrentUser()).thenReturn(user);
+	}
+
+	@Test
+	void keptQuestionsAreUpdatedInPlaceAndNewOnesAppended() {
+		QuizRequest request = request(
+				questionRequest(1L, "Pick the greeting", "Hello"),
+				questionRequest(2L, "Pick the polite farewell", "Goodbye"),
+				questionRequest(null, "Pick the thanks", "Thank you"));
+
+		quizService.updateQuiz(QUIZ_ID, request);
+
+		assertEquals(3, quiz.getQuestions().size());
+		assertSame(first, quiz.getQuestions().get(0));
+		assertSame(second, quiz.getQuestions().get(1));
+		assertEquals(2L, second.getId());
+		assertEquals("Pick the polite farewell", second.getTitle());
+		assertNull(quiz.getQuestions().get(2).getId());
+		verify(quizQuestionRepository, never()).deleteByIdIn(any());
+		// A new title does not change how stored answers are graded
+		verify(quizRegradeService, never()).startRegrade(any());
+	}
+
+	@Test
+	void omittedQuestionsAreDeletedInOneStatement() {
+		Quiz reloaded = new Quiz();
+		reloaded.setId(QUIZ_ID);
+		reloaded.setChapter(quiz.getChapter());
+		reloaded.setMaxScore(2);
+		reloaded.getQuestions().add(first);
+		when(quizRepository.findWithQuestionsById(QUIZ_ID)).thenReturn(Optional.of(quiz), Optional.of(reloaded));
+
+		quizService.updateQuiz(QUIZ_ID, request(questionRequest(1L, "Pick the greeting", "Hello")));
+
+		verify(quizQuestionRepository).deleteByIdIn(List.of(2L));
+		assertEquals(1, reloaded.getQuestions().size());
+		assertSame(first, reloaded.getQuestions().get(0));
+		verify(quizRegradeService).startRegrade(QUIZ_ID);
+		verify(quizItemStatsService).resetQuestions(List.of(2L));
+	}
+
+	@Test
+	void answerKeyChangeRegradesOnlyThatQuestion() {
+		quizService.updateQuiz(QUIZ_ID, request(
+				questionRequest(1L, "Pick the greeting", "Hi"),
+				questionRequest(2L, "Pick the farewell", "Goodbye")));
+
+		assertEquals("[\"Hi\"]", first.getCorrectAnswer());
+		verify(quizRegradeService).startRegrade(QUIZ_ID);
+		verify(quizItemStatsService).resetQuestions(List.of(1L));
+	}
+
+	@Test
+	void questionIdFromAnotherQuizIsRejected() {
+		QuizRequest request = request(questionRequest(99L, "Pick the greeting", "Hello"));
+
+		assertThrows(IllegalArgumentException.class, () -> quizService.updateQuiz(QUIZ_ID, request));
+		verify(quizQuestionRepository, never()).deleteByIdIn(any());
+	}
+
+	@Test
+	void submittedScoreIsScaledToTheQuizMaxScore() {
+		QuizQuestion third = question(3L, "Pick the thanks", "Thank you");
+		quiz.getQuestions().add(third);
+		quiz.setMaxScore(100);
+		QuizAttempt attempt = new QuizAttempt();
+		attempt.setUser(user);
+		attempt.setQuiz(quiz);
+		attempt.setStartedAt(LocalDateTime.now());
+		when(quizAttemptRepository.findByUserIdAndQuizId(1L, QUIZ_ID)).thenReturn(Optional.of(attempt));
+		when(quizAttemptRepository.save(any(QuizAttempt.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		QuizSubmissionRequest request = new QuizSubmissionRequest();
+		request.setScore(0);
+		request.setAnswers(Map.of(
+				1L, objectMapper.valueToTree(List.of("Hello")),
+				2L, objectMapper.valueToTree(List.of("Hello")),
+				3L, objectMapper.valueToTree(List.of("Thank you"))));
+		QuizSubmissionResponse response = quizService.submitQuiz(QUIZ_ID, request);
+
+		// Two of three questions right is 67 of 100, below the 80% needed to pass
+		assertEquals(67, response.getScore());
+		assertEquals(67, attempt.getScore());
+		assertTrue(response.getIsEligibleForRetake());
+	}
+
+	private static QuizQuestion question(Long id, String title, String correctChoice) {
+		QuizQuestion question = new QuizQuestion();
+		question.setId(id);
+		question.setPage(1);
+		question.setType("multiple_choice");
+		question.setTitle(title);
+		question.setChoices(new ArrayList<>(List.of("Hello", "Goodbye", "Thank you", "Hi")));
+		question.setCorrectAnswer("[\"" + correctChoice + "\"]");
+		question.setMaxEdits(0);
+		return question;
+	}
+
+	private static QuizRequest.QuestionRequest questionRequest(Long id, String title, String correctChoice) {
+		QuizRequest.QuestionRequest question = new QuizRequest.QuestionRequest();
+		question.setId(id);
+		question.setPage(1);
+		question.setType("multiple_choice");
+		question.setTitle(title);
+		question.setChoices(List.of("Hello", "Goodbye", "Thank you", "Hi"));
+		question.setCorrectAnswer(List.of(correctChoice));
+		return question;
+	}
+
+	private static QuizRequest request(QuizRequest.QuestionRequest... questions) {
+		QuizRequest request = new QuizRequest();
+		request.setChapterId(CHAPTER_ID);
+		request.setTitle("Greetings");
+		request.setDescription("Everyday greetings");
+		request.setDifficulty(1);
+		request.setMaxScore(questions.length);
+		request.setQuestions(List.of(questions));
+		return request;
+	}
+}
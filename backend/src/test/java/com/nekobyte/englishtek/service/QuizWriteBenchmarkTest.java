@@ -0,0 +1,150 @@
+package com.nekobyte.englishtek.service;
+
+import com.nekobyte.englishtek.MySqlTestSupport;
+import com.nekobyte.englishtek.dto.quiz.QuizRequest;
+import com.nekobyte.englishtek.dto.quiz.QuizResponse;
+import com.nekobyte.englishtek.model.Chapter;
+import com.nekobyte.englishtek.model.User;
+import com.nekobyte.englishtek.repository.ChapterRepository;
+import com.nekobyte.englishtek.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timings are printed for comparison rather than asserted; the statement counts are what must hold
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QuizWriteBenchmarkTest extends MySqlTestSupport {
+	private static final int BANK_SIZE = 200;
+
+	@Autowired
+	private QuizService quizService;
+	@Autowired
+	private ChapterRepository chapterRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Statistics statistics;
+	private Long chapterId;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		User admin = userRepository.findByUsername("benchmark").orElseGet(() -> {
+			User user = new User();
+			user.setUsername("benchmark");
+			user.setEmail("benchmark@example.com");
+			user.setPassword("secret");
+			user.setName("Benchmark");
+			user.setRole(User.Role.ADMIN);
+			return userRepository.save(user);
+		});
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+
+		Chapter chapter = new Chapter();
+		chapter.setTitle("Basics");
+		chapter.setDescription("Everyday English");
+		chapterId = chapterRepository.save(chapter).getId();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void createQuizInsertsQuestionsInJdbcBatches() {
+		// Warm up so neither run pays for first-use class loading or id block allocation alone
+		quizService.createQuiz(request(BANK_SIZE));
+
+		statistics.clear();
+		long start = System.nanoTime();
+		transactionTemplate.execute(status -> {
+			// Batching off, as every insert was before ids were pooled
+			entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+			return quizService.createQuiz(request(BANK_SIZE));
+		});
+		long unbatchedNanos = System.nanoTime() - start;
+		long unbatchedStatements = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		start = System.nanoTime();
+		quizService.createQuiz(request(BANK_SIZE));
+		long batchedNanos = System.nanoTime() - start;
+		long batchedStatements = statistics.getPrepareStatementCount();
+
+		assertEquals(BANK_SIZE + 1, statistics.getEntityInsertCount());
+		System.out.printf("createQuiz with %d questions: %d statements in %.1f ms unbatched, %d statements in %.1f ms batched%n",
+				BANK_SIZE, unbatchedStatements, unbatchedNanos / 1e6, batchedStatements, batchedNanos / 1e6);
+		assertTrue(unbatchedStatements > BANK_SIZE, "unbatched run prepared " + unbatchedStatements + " statements");
+		assertTrue(batchedStatements < BANK_SIZE / 10, "batched run prepared " + batchedStatements + " statements");
+	}
+
+	@Test
+	void editingOneQuestionWritesOneRowWhateverTheBankSize() {
+		for (int size : new int[]{10, 100, 500}) {
+			QuizResponse quiz = quizService.createQuiz(request(size));
+			QuizRequest edit = request(size);
+			for (int i = 0; i < size; i++) {
+				edit.getQuestions().get(i).setId(quiz.getQuestions().get(i).getId());
+			}
+			edit.getQuestions().get(0).setTitle("Pick the polite greeting");
+
+			statistics.clear();
+			long start = System.nanoTime();
+			quizService.updateQuiz(quiz.getId(), edit);
+			long nanos = System.nanoTime() - start;
+
+			System.out.printf("updateQuiz editing one title of %d questions: %.1f ms, %d statements%n",
+					size, nanos / 1e6, statistics.getPrepareStatementCount());
+			assertEquals(0, statistics.getEntityInsertCount(), size + " questions");
+			assertEquals(0, statistics.getEntityDeleteCount(), size + " questions");
+			assertEquals(1, statistics.getEntityUpdateCount(), size + " questions");
+		}
+	}
+
+	private QuizRequest request(int size) {
+		List<QuizRequest.QuestionRequest> questions = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			QuizRequest.QuestionRequest question = new QuizRequest.QuestionRequest();
+			question.setPage(i + 1);
+			question.setType("multiple_choice");
+			question.setTitle("Pick greeting " + i);
+			question.setChoices(List.of("Hello", "Goodbye", "Thank you", "Hi"));
+			question.setCorrectAnswer(List.of("Hello"));
+			questions.add(question);
+		}
+
+		QuizRequest request = new QuizRequest();
+		request.setChapterId(chapterId);
+		request.setTitle("Greetings");
+		request.setDescription("Everyday greetings");
+		request.setDifficulty(1);
+		request.setMaxScore(size);
+		request.setQuestions(questions);
+		return request;
+	}
+}
@@ -0,0 +1,134 @@
+package com.nekobyte.englishtek.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyMatcherTest {
+
+	// Over 64 characters once normalized, so matching goes through the banded path
+	private static final String LONG_ANSWER =
+			"The quick brown fox jumps over the lazy dog while the farmer is away at the market";
+
+	@Test
+	void exactMatchIgnoresCaseAccentsPunctuationAndSpacing() {
+		FuzzyMatcher matcher = FuzzyMatcher.compile("Café au lait!", 0);
+
+		assertTrue(matcher.matches("  cafe   AU lait "));
+		assertFalse(matcher.matches("cafe au laits"));
+	}
+
+	@Test
+	void blankAnswersNeverMatch() {
+		FuzzyMatcher matcher = FuzzyMatcher.compile("cat", 3);
+
+		assertFalse(matcher.matches(null));
+		assertFalse(matcher.matches(""));
+		assertFalse(matcher.matches("   "));
+		assertFalse(matcher.matches("?!"));
+		assertFalse(FuzzyMatcher.compile("", 0).matches(""));
+		assertFalse(FuzzyMatcher.compile(LONG_ANSWER.substring(0, 3), 5).matches(" "));
+	}
+
+	@Test
+	void bitParallelPathAcceptsTyposWithinTheLimit() {
+		FuzzyMatcher matcher = FuzzyMatcher.compile("necessary", 2);
+
+		assertTrue(matcher.matches("necessary"));
+		assertTrue(matcher.matches("necesary"));
+		assertTrue(matcher.matches("neccesary"));
+		assertFalse(matcher.matches("nesesery"));
+		assertFalse(matcher.matches("unnecessarily"));
+	}
+
+	@Test
+	void bitParallelPathHandlesNonAsciiCharacters() {
+		FuzzyMatcher matcher = FuzzyMatcher.compile("ありがとう", 1);
+
+		assertTrue(matcher.matches("ありがと"));
+		assertTrue(matcher.matches("ありがとお"));
+		assertFalse(matcher.matches("ありか"));
+	}
+
+	@Test
+	void bandedPathAcceptsTyposWithinTheLimit() {
+		FuzzyMatcher matcher = FuzzyMatcher.compile(LONG_ANSWER, 2);
+
+		assertTrue(matcher.matches(LONG_ANSWER.toUpperCase()));
+		assertTrue(matcher.matches(LONG_ANSWER.replace("quick", "quik")));
+		assertTrue(matcher.matches(LONG_ANSWER.replace("quick", "quik").replace("lazy", "lasy")));
+		assertFalse(matcher.matches(LONG_ANSWER.replace("quick", "quik").replace("lazy", "lasy").replace("dog", "dig")));
+		assertFalse(matcher.matches(LONG_ANSWER.substring(10)));
+	}
+
+	@Test
+	void bothPathsAgreeWithPlainEditDistance() {
+		Random random = new Random(42);
+		for (int round = 0; round < 2000; round++) {
+			String expected = randomWord(random, 1 + random.nextInt(round % 2 == 0 ? 64 : 100));
+			String answer = mutate(random, expected);
+			int maxEdits = 1 + random.nextInt(4);
+
+			boolean within = distance(FuzzyMatcher.normalize(expected), FuzzyMatcher.normalize(answer)) <= maxEdits;
+			assertEquals(within, FuzzyMatcher.compile(expected, maxEdits).matches(answer),
+					() -> "expected \"" + expected + "\", answer \"" + answer + "\", max edits " + maxEdits);
+		}
+	}
+
+	private static String randomWord(Random random, int length) {
+		StringBuilder word = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			word.append((char) ('a' + random.nextInt(4)));
+		}
+		return word.toString();
+	}
+
+	private static String mutate(Random random, String value) {
+		StringBuilder mutated = new StringBuilder(value);
+		int edits = random.nextInt(6);
+		for (int i = 0; i < edits; i++) {
+			int position = random.nextInt(mutated.length() + 1);
+			switch (random.nextInt(3)) {
+				case 0 -> mutated.insert(position, (char) ('a' + random.nextInt(4)));
+				case 1 -> {
+					if (position < mutated.length()) {
+						mutated.deleteCharAt(position);
+					}
+				}
+				default -> {
+					if (position < mutated.length()) {
+						mutated.setCharAt(position, (char) ('a' + random.nextInt(4)));
+					}
+				}
+			}
+		}
+		return mutated.toString();
+	}
+
+	// Plain Levenshtein distance; a blank answer is out of reach, as it is for the matcher
+	private static int distance(String a, String b) {
+		if (b.isEmpty()) {
+			return Integer.MAX_VALUE;
+		}
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(previous[j - 1] + cost, Math.min(previous[j], current[j - 1]) + 1);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous[b.length()];
+	}
+}